@@ -0,0 +1,98 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.Random;
+
+// Reproducible maps and queries for the benchmarks, built with the same obstacle
+// shapes the game's field generator uses. Public, along with Distance, because the
+// code JMH generates for @Param fields lives in another package.
+public final class BenchmarkMaps {
+    // Gives up on reaching the requested density after this many rejected placements
+    private static final int PLACEMENT_ATTEMPT_LIMIT = 100000;
+
+    // Candidate start and goal pairs drawn per query before the map is judged too crowded
+    private static final int QUERY_ATTEMPT_LIMIT = 100000;
+
+    // How far apart the start and goal of a query are, as a share of the grid's side
+    public enum Distance {
+        SHORT(0.05),
+        MEDIUM(0.3),
+        LONG(0.8);
+
+        final double fraction;
+
+        Distance(double fraction) {
+            this.fraction = fraction;
+        }
+    }
+
+    private BenchmarkMaps() {
+    }
+
+    // Square grid covered by non-overlapping square obstacles up to the given density
+    static Grid generate(int size, double density, long seed) {
+        Grid grid = new Grid(size, size);
+        Random rand = new Random(seed);
+        int target = (int) (size * (long) size * density);
+        MapConfig defaults = new MapConfig();
+        int minObstacleSize = defaults.getMinObstacleSize();
+        int maxObstacleSize = defaults.getMaxObstacleSize();
+        int blocked = 0;
+        int failures = 0;
+
+        while (blocked < target && failures < PLACEMENT_ATTEMPT_LIMIT) {
+            int obstacleSize = rand.nextInt(maxObstacleSize - minObstacleSize + 1) + minObstacleSize;
+            int x = rand.nextInt(size - obstacleSize);
+            int y = rand.nextInt(size - obstacleSize);
+
+            if (!isFree(grid, x, y, obstacleSize)) {
+                ++failures;
+                continue;
+            }
+            for (int i = 0; i < obstacleSize; ++i) {
+                for (int j = 0; j < obstacleSize; ++j) {
+                    grid.setObstacle(x + i, y + j, true);
+                }
+            }
+            blocked += obstacleSize * obstacleSize;
+        }
+        return grid;
+    }
+
+    // Start and goal cells as {startX, startY, goalX, goalY}, both walkable and roughly the given distance apart
+    static int[][] queries(Grid grid, Distance distance, int count, long seed) {
+        Random rand = new Random(seed);
+        int size = grid.getWidth();
+        int reach = Math.max(1, (int) (size * distance.fraction));
+        int[][] queries = new int[count][];
+
+        for (int i = 0; i < count; ++i) {
+            int startX;
+            int startY;
+            int goalX;
+            int goalY;
+            int attempts = 0;
+            do {
+                if (++attempts > QUERY_ATTEMPT_LIMIT) {
+                    throw new IllegalStateException("No walkable start and goal " + reach + " cells apart found in "
+                            + QUERY_ATTEMPT_LIMIT + " attempts; the map is too dense for " + distance + " queries");
+                }
+                startX = rand.nextInt(size);
+                startY = rand.nextInt(size);
+                double angle = rand.nextDouble() * 2 * Math.PI;
+                goalX = startX + (int) Math.round(Math.cos(angle) * reach);
+                goalY = startY + (int) Math.round(Math.sin(angle) * reach);
+            } while (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY));
+            queries[i] = new int[] { startX, startY, goalX, goalY };
+        }
+        return queries;
+    }
+
+    private static boolean isFree(Grid grid, int x, int y, int obstacleSize) {
+        for (int i = 0; i < obstacleSize; ++i) {
+            for (int j = 0; j < obstacleSize; ++j) {
+                if (!grid.isWalkable(x + i, y + j)) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,71 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Whole episodes of the headless simulation, one per iteration. A step takes well under a
+// microsecond, too little to time on its own, so each measurement runs a full episode and
+// the level is laid out in the iteration's setup, outside the timed part. Replans along
+// the way are counted.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 100)
+@Measurement(iterations = 300)
+@Fork(1)
+@State(Scope.Thread)
+public class EpisodeBenchmark {
+    // Episodes that neither win nor lose are cut off here
+    private static final int MAX_STEPS = 20000;
+
+    @Param({ "1", "2", "3" })
+    long seed;
+
+    private Simulation simulation;
+
+    // Steps over all measured episodes; divide by the count for steps per episode
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long steps;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            steps = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simulation = new Simulation(seed);
+    }
+
+    @Setup(Level.Iteration)
+    public void layOutLevel() {
+        simulation.reset();
+    }
+
+    @Benchmark
+    public int episode(Counters counters) {
+        int result = Simulation.NONE;
+        int steps = 0;
+        while (result == Simulation.NONE && steps < MAX_STEPS) {
+            result = simulation.step();
+            ++steps;
+        }
+        counters.steps += steps;
+        return result;
+    }
+}
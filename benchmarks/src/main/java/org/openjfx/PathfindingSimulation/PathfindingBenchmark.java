@@ -0,0 +1,131 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Path queries on generated maps across sizes, densities, seeds, query lengths and search modes,
+// and the heuristics that guide them. Each benchmark only runs over the parameters of the state
+// it takes. Run with -prof gc to see the allocation rate alongside ops/s.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathfindingBenchmark {
+    private static final int QUERY_COUNT = 64;
+
+    @State(Scope.Thread)
+    public static class Queries {
+        @Param({ "40", "200", "1000" })
+        int gridSize;
+
+        @Param({ "0.1", "0.3" })
+        double density;
+
+        @Param({ "1", "2" })
+        long seed;
+
+        @Param({ "SHORT", "LONG" })
+        BenchmarkMaps.Distance distance;
+
+        @Param({ "ASTAR", "JPS", "JPS_PLUS", "HIERARCHICAL", "THETA_STAR" })
+        SearchMode mode;
+
+        Grid grid;
+        GridNode[] starts;
+        GridNode[] goals;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            grid = BenchmarkMaps.generate(gridSize, density, seed);
+            grid.setSearchMode(mode);
+
+            int[][] queries = BenchmarkMaps.queries(grid, distance, QUERY_COUNT, seed);
+            starts = new GridNode[queries.length];
+            goals = new GridNode[queries.length];
+            for (int i = 0; i < queries.length; ++i) {
+                starts[i] = grid.getNode(queries[i][0], queries[i][1]);
+                goals[i] = grid.getNode(queries[i][2], queries[i][3]);
+            }
+
+            // Builds the JPS+ table and HPA* clusters outside the measurement
+            grid.findPath(starts[0], goals[0]);
+        }
+    }
+
+    // Cell offsets for the heuristic benchmark, which needs no map
+    @State(Scope.Thread)
+    public static class Offsets {
+        @Param({ "OCTILE", "EUCLIDEAN", "MANHATTAN" })
+        String heuristic;
+
+        Heuristic estimate;
+        int[] dx = new int[QUERY_COUNT];
+        int[] dy = new int[QUERY_COUNT];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            switch (heuristic) {
+                case "EUCLIDEAN":
+                    estimate = Heuristic.EUCLIDEAN;
+                    break;
+                case "MANHATTAN":
+                    estimate = Heuristic.MANHATTAN;
+                    break;
+                default:
+                    estimate = Heuristic.OCTILE;
+                    break;
+            }
+
+            Random rand = new Random(1);
+            for (int i = 0; i < QUERY_COUNT; ++i) {
+                dx[i] = rand.nextInt(1000);
+                dy[i] = rand.nextInt(1000);
+            }
+        }
+    }
+
+    // Nodes expanded per second; divide by ops/s for nodes per query
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long nodesExpanded;
+    }
+
+    @Benchmark
+    public List<GridNode> findPath(Queries queries, Counters counters) {
+        int query = queries.next;
+        queries.next = (query + 1) % queries.starts.length;
+
+        Grid grid = queries.grid;
+        List<GridNode> path = grid.findPath(queries.starts[query], queries.goals[query]);
+        counters.nodesExpanded += grid.getNodesExpanded();
+        return path;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void heuristic(Offsets offsets, Blackhole blackhole) {
+        Heuristic estimate = offsets.estimate;
+        for (int i = 0; i < QUERY_COUNT; ++i) {
+            blackhole.consume(estimate.estimate(offsets.dx[i], offsets.dy[i]));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-frame collision check of the headless simulation. Full steps are timed a whole
+// episode at a time by EpisodeBenchmark.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark {
+    @Param({ "1", "2", "3" })
+    long seed;
+
+    private Simulation simulation;
+
+    @Setup
+    public void setUp() {
+        simulation = new Simulation(seed);
+        simulation.reset();
+    }
+
+    @Benchmark
+    public int checkCollision() {
+        return simulation.checkCollision();
+    }
+}
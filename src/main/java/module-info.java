@@ -1,6 +1,8 @@
 module org.openjfx.PathfindingSimulation {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.jfr;
 
     opens org.openjfx.PathfindingSimulation to javafx.fxml;
     exports org.openjfx.PathfindingSimulation;
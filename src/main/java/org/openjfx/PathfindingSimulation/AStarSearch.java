@@ -0,0 +1,231 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// A* over cell indices (y * width + x) backed by flat arrays.
+// Per-cell state is only valid when its stamp matches the current generation,
+// so starting a new search is O(1) and allocates nothing.
+// An instance is one thread's search context; walkability is read from a GridSnapshot.
+public class AStarSearch implements PathSearch {
+    // Neighbor offsets, orthogonal directions first
+    static final int[] DIR_X = { 0, 1, 0, -1, 1, 1, -1, -1 };
+    static final int[] DIR_Y = { -1, 0, 1, 0, -1, 1, 1, -1 };
+
+    protected final Grid grid;
+    protected final int width;
+    protected final int height;
+
+    // Per-cell search state
+    protected final int[] gCost;
+    protected final int[] parent;
+    private final int[] openedStamp;
+    private final int[] closedStamp;
+    private int generation = 0;
+
+    // Open set ordered by fCost, ties broken toward the goal
+    private final IndexedMinHeap openSet;
+
+    private int nodesExpanded;
+
+    // Walkability, estimate and cells the current search may visit
+    protected GridSnapshot snapshot;
+    private Heuristic estimate;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+    private boolean bounded;
+
+    public AStarSearch(Grid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+
+        int cellCount = width * height;
+        this.gCost = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.openedStamp = new int[cellCount];
+        this.closedStamp = new int[cellCount];
+        this.openSet = new IndexedMinHeap(cellCount);
+    }
+
+    @Override
+    public List<GridNode> findPath(int startX, int startY, int goalX, int goalY) {
+        return findPathWithin(grid.snapshot(), startX, startY, goalX, goalY, 0, 0, width - 1, height - 1);
+    }
+
+    // Same as findPath, but never leaves the given rectangle of cells
+    public List<GridNode> findPathWithin(int startX, int startY, int goalX, int goalY, int minX, int minY, int maxX, int maxY) {
+        return findPathWithin(grid.snapshot(), startX, startY, goalX, goalY, minX, minY, maxX, maxY);
+    }
+
+    List<GridNode> findPathWithin(GridSnapshot snapshot, int startX, int startY, int goalX, int goalY,
+            int minX, int minY, int maxX, int maxY) {
+        if (search(snapshot, startX, startY, goalX, goalY, minX, minY, maxX, maxY)) {
+            return reconstructPath(goalY * width + goalX);
+        }
+
+        // No path found
+        return new ArrayList<>();
+    }
+
+    // Cost of the cheapest path that stays inside the rectangle, or Integer.MAX_VALUE if there is none
+    int findCostWithin(GridSnapshot snapshot, int startX, int startY, int goalX, int goalY,
+            int minX, int minY, int maxX, int maxY) {
+        if (search(snapshot, startX, startY, goalX, goalY, minX, minY, maxX, maxY)) {
+            return gCost[goalY * width + goalX];
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private boolean search(GridSnapshot snapshot, int startX, int startY, int goalX, int goalY,
+            int minX, int minY, int maxX, int maxY) {
+        nodesExpanded = 0;
+        openSet.clear();
+        this.snapshot = snapshot;
+        this.estimate = grid.getHeuristic().forSnapshot(snapshot);
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.bounded = minX > 0 || minY > 0 || maxX < width - 1 || maxY < height - 1;
+        if (!isWalkable(goalX, goalY)) {
+            return false;
+        }
+
+        prepare();
+        nextGeneration();
+
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        open(start, 0, -1, heuristic(start, goalX, goalY));
+
+        while (!openSet.isEmpty()) {
+        	// Node in openSet having the lowest fCost
+            int current = openSet.poll();
+            settle(current);
+
+            if (current == goal) {
+                return true;
+            }
+
+            closedStamp[current] = generation;
+            ++nodesExpanded;
+
+            expand(current, goalX, goalY);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public int getPeakOpenSetSize() {
+        return openSet.getPeakSize();
+    }
+
+    // True if the cell is walkable and inside the current search bounds.
+    // Valid for any cell within one step of the grid.
+    protected final boolean isWalkable(int x, int y) {
+        if (bounded && (x < minX || x > maxX || y < minY || y > maxY)) return false;
+        return snapshot.isWalkable(x, y);
+    }
+
+    // Called before each search, once the snapshot it will use is known
+    protected void prepare() {
+    }
+
+    // Called when a node leaves the open set, before it is checked against the goal
+    protected void settle(int current) {
+    }
+
+    // Estimated cost from the cell to the goal, by the grid's heuristic
+    protected int heuristic(int cell, int goalX, int goalY) {
+        return estimate.estimate(cell % width, cell / width, goalX, goalY);
+    }
+
+    // Relaxes the successors of the current node
+    protected void expand(int current, int goalX, int goalY) {
+        int currentX = current % width;
+        int currentY = current / width;
+
+        // Walkable neighbors, with diagonals that would cut an obstacle corner already removed
+        int mask = snapshot.neighborMask(currentX, currentY);
+        for (int dir = 0; dir < 8; ++dir) {
+            if ((mask & (1 << dir)) == 0) continue;
+
+            int newX = currentX + DIR_X[dir];
+            int newY = currentY + DIR_Y[dir];
+
+            // A diagonal inside the bounds also has both of its orthogonal cells inside
+            if (bounded && (newX < minX || newX > maxX || newY < minY || newY > maxY)) continue;
+
+            relax(current, newY * width + newX, dir < 4 ? Grid.STRAIGHT_COST : Grid.DIAGONAL_COST, goalX, goalY);
+        }
+    }
+
+    // Opens the successor, or lowers its cost if this route is cheaper
+    protected final void relax(int current, int successor, int stepCost, int goalX, int goalY) {
+        relaxVia(current, successor, gCost[current] + stepCost, goalX, goalY);
+    }
+
+    // Same as relax, but with the successor's parent and cost through it given directly
+    protected final void relaxVia(int from, int successor, int tentativeGCost, int goalX, int goalY) {
+        if (closedStamp[successor] == generation) return;
+
+        if (openedStamp[successor] != generation || tentativeGCost < gCost[successor]) {
+            open(successor, tentativeGCost, from, heuristic(successor, goalX, goalY));
+        }
+    }
+
+    protected final boolean isClosed(int cell) {
+        return closedStamp[cell] == generation;
+    }
+
+    private void open(int cell, int g, int from, int h) {
+        gCost[cell] = g;
+        parent[cell] = from;
+        openedStamp[cell] = generation;
+        openSet.insertOrUpdate(cell, g + h, h);
+    }
+
+    private void nextGeneration() {
+        if (++generation == 0) {
+            // Stamps wrapped around, so old values could look current again
+            Arrays.fill(openedStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            generation = 1;
+        }
+    }
+
+    // Walks the parent chain back from the goal, filling in the cells between
+    // successive nodes when they are further apart than one step
+    protected List<GridNode> reconstructPath(int goal) {
+        List<GridNode> path = new ArrayList<>();
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            int x = cell % width;
+            int y = cell / width;
+            path.add(grid.getNode(x, y));
+
+            if (parent[cell] == -1) break;
+
+            int parentX = parent[cell] % width;
+            int parentY = parent[cell] / width;
+            int stepX = Integer.signum(parentX - x);
+            int stepY = Integer.signum(parentY - y);
+            for (x += stepX, y += stepY; x != parentX || y != parentY; x += stepX, y += stepY) {
+                path.add(grid.getNode(x, y));
+            }
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+}
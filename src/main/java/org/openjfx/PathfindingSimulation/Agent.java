@@ -0,0 +1,167 @@
+package org.openjfx.PathfindingSimulation;
+
+// Plain position and momentum of the agent moving across the field, free of any JavaFX types.
+// The position is the top-left corner of the agent's body in pixels.
+public class Agent {
+	// Movement variables
+	private static final double MAX_SPEED = 1.5;
+	private static final double ACCELERATION = 0.2;
+	private double verticalMomentum = 0.0;
+	private double horizontalMomentum = 0.0;
+
+	private static final int AGENT_BORDER_WIDTH = 3;
+
+	// Outer size of the agent, one grid square
+	private final int agentWidth;
+
+	private double x;
+	private double y;
+	private int xGridPos;
+	private int yGridPos;
+
+	public Agent(int agentWidth) {
+		this.agentWidth = agentWidth;
+	}
+
+	// Places the agent inside the given grid square and stops it
+	public void spawn(int xGridPos, int yGridPos, int gridSquareSize) {
+		this.xGridPos = xGridPos;
+		this.yGridPos = yGridPos;
+		x = gridSquareSize * xGridPos + AGENT_BORDER_WIDTH;
+		y = gridSquareSize * yGridPos + AGENT_BORDER_WIDTH;
+		clearMomentum();
+	}
+
+	public void moveUp() {
+		increaseVerticalMomentum();
+		y += verticalMomentum;
+	}
+
+	public void moveDown() {
+		decreaseVerticalMomentum();
+		y += verticalMomentum;
+	}
+
+	public void moveLeft() {
+		decreaseHorizontalMomentum();
+		x += horizontalMomentum;
+	}
+
+	public void moveRight() {
+		increaseHorizontalMomentum();
+		x += horizontalMomentum;
+	}
+
+	// Heads straight for a point the given distance away at full speed, stopping on it
+	// rather than overshooting. The longer axis moves at full speed, as with the single-axis
+	// moves, and the other axis keeps pace so the agent stays on the line.
+	public void moveToward(double dx, double dy) {
+		double longest = Math.max(Math.abs(dx), Math.abs(dy));
+		if (longest == 0) return;
+
+		double scale = Math.min(1, MAX_SPEED / longest);
+		horizontalMomentum = dx * scale;
+		verticalMomentum = dy * scale;
+		x += horizontalMomentum;
+		y += verticalMomentum;
+	}
+
+	public void increaseVerticalMomentum() {
+		verticalMomentum = Math.min(-1 * MAX_SPEED, verticalMomentum + ACCELERATION);
+	}
+
+	public void decreaseVerticalMomentum() {
+		verticalMomentum = Math.max(MAX_SPEED, verticalMomentum - ACCELERATION);
+	}
+
+	public void increaseHorizontalMomentum() {
+		horizontalMomentum = Math.max(MAX_SPEED, horizontalMomentum - ACCELERATION);
+	}
+
+	public void decreaseHorizontalMomentum() {
+		horizontalMomentum = Math.min(-1 * MAX_SPEED, horizontalMomentum + ACCELERATION);
+	}
+
+	public void clearMomentum() {
+		verticalMomentum = 0;
+		horizontalMomentum = 0;
+	}
+
+	// Size of the body inside the border
+	public int getBodyWidth() {
+		return agentWidth - 2 * AGENT_BORDER_WIDTH;
+	}
+
+	// Bounds of the drawn agent, where the border straddles the edge of the body
+	public double getMinX() {
+		return x - AGENT_BORDER_WIDTH / 2.0;
+	}
+
+	public double getMinY() {
+		return y - AGENT_BORDER_WIDTH / 2.0;
+	}
+
+	public double getMaxX() {
+		return x + getBodyWidth() + AGENT_BORDER_WIDTH / 2.0;
+	}
+
+	public double getMaxY() {
+		return y + getBodyWidth() + AGENT_BORDER_WIDTH / 2.0;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public void setXGridPos(int pos) {
+		xGridPos = pos;
+	}
+
+	public int getXGridPos() {
+		return xGridPos;
+	}
+
+	public void setYGridPos(int pos) {
+		yGridPos = pos;
+	}
+
+	public int getYGridPos() {
+		return yGridPos;
+	}
+
+	public double getMaxSpeed() {
+		return MAX_SPEED;
+	}
+
+	public double getAcceleration() {
+		return ACCELERATION;
+	}
+
+	public double getVerticalMomentum() {
+		return verticalMomentum;
+	}
+
+	public void setVerticalMomentum(double newMomentum) {
+		verticalMomentum = newMomentum;
+	}
+
+	public double getHorizontalMomentum() {
+		return horizontalMomentum;
+	}
+
+	public void setHorizontalMomentum(double newMomentum) {
+		horizontalMomentum = newMomentum;
+	}
+
+	public int getAgentWidth() {
+		return agentWidth;
+	}
+
+	public int getAgentBorderWidth() {
+		return AGENT_BORDER_WIDTH;
+	}
+}
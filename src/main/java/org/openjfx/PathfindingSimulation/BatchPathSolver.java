@@ -0,0 +1,136 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Solves many path queries against one grid in parallel on a work-stealing pool.
+// Each worker thread reuses the search engines the grid pools for it, so a batch
+// allocates nothing per query beyond the returned paths.
+public class BatchPathSolver {
+    // Queries per task before a range stops splitting
+    private static final int DEFAULT_SPLIT_THRESHOLD = 8;
+
+    private final Grid grid;
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+
+    // Paths in query order together with timing for the whole batch
+    public static class BatchResult {
+        private final List<List<GridNode>> paths;
+        private final long elapsedNanos;
+        // Per-query latencies, sorted ascending
+        private final long[] latencyNanos;
+
+        BatchResult(List<List<GridNode>> paths, long elapsedNanos, long[] latencyNanos) {
+            this.paths = paths;
+            this.elapsedNanos = elapsedNanos;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public List<List<GridNode>> getPaths() {
+            return paths;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        // Queries solved per second of wall-clock time
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : paths.size() * 1e9 / elapsedNanos;
+        }
+
+        // Latency of a single query at the given percentile (0-100), nearest rank
+        public long getLatencyPercentile(double percentile) {
+            if (latencyNanos.length == 0) return 0;
+            int rank = (int) Math.ceil(percentile / 100.0 * latencyNanos.length);
+            return latencyNanos[Math.max(0, Math.min(latencyNanos.length - 1, rank - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d paths in %.1f ms (%.0f paths/s, p50 %.1f us, p99 %.1f us, max %.1f us)",
+                    paths.size(), elapsedNanos / 1e6, getThroughput(),
+                    getLatencyPercentile(50) / 1e3, getLatencyPercentile(99) / 1e3, getLatencyPercentile(100) / 1e3);
+        }
+    }
+
+    public BatchPathSolver(Grid grid) {
+        this(grid, ForkJoinPool.commonPool());
+    }
+
+    public BatchPathSolver(Grid grid, ForkJoinPool pool) {
+        this(grid, pool, DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    public BatchPathSolver(Grid grid, ForkJoinPool pool, int splitThreshold) {
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("Split threshold must be at least 1");
+        }
+        this.grid = grid;
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    // Finds a path from each start to the goal at the same index
+    public BatchResult solve(List<GridNode> starts, List<GridNode> goals) {
+        if (starts.size() != goals.size()) {
+            throw new IllegalArgumentException("Expected one goal per start");
+        }
+
+        int count = starts.size();
+        GridNode[] startNodes = starts.toArray(new GridNode[0]);
+        GridNode[] goalNodes = goals.toArray(new GridNode[0]);
+        // Workers only set their own indices, and the join publishes them
+        List<List<GridNode>> paths = new ArrayList<>(Collections.nCopies(count, null));
+        long[] latencies = new long[count];
+
+        long startTime = System.nanoTime();
+        pool.invoke(new SolveTask(startNodes, goalNodes, paths, latencies, 0, count));
+        long elapsed = System.nanoTime() - startTime;
+
+        Arrays.sort(latencies);
+        return new BatchResult(paths, elapsed, latencies);
+    }
+
+    // Splits the query range in half until it is small enough to solve directly
+    private class SolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GridNode[] starts;
+        private final GridNode[] goals;
+        private final List<List<GridNode>> paths;
+        private final long[] latencies;
+        private final int from;
+        private final int to;
+
+        SolveTask(GridNode[] starts, GridNode[] goals, List<List<GridNode>> paths, long[] latencies, int from, int to) {
+            this.starts = starts;
+            this.goals = goals;
+            this.paths = paths;
+            this.latencies = latencies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= splitThreshold) {
+                for (int i = from; i < to; ++i) {
+                    long queryStart = System.nanoTime();
+                    paths.set(i, grid.findPath(starts[i], goals[i]));
+                    latencies[i] = System.nanoTime() - queryStart;
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveTask(starts, goals, paths, latencies, from, middle),
+                    new SolveTask(starts, goals, paths, latencies, middle, to));
+        }
+    }
+}
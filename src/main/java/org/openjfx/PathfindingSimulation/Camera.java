@@ -0,0 +1,93 @@
+package org.openjfx.PathfindingSimulation;
+
+// Part of the field shown in a view. World coordinates are field pixels, and the view
+// shows the field from (offsetX, offsetY) magnified by scale. The camera never shows
+// past the field's edges unless the whole field fits in the view.
+public class Camera {
+    // Largest magnification, in screen pixels per field pixel
+    static final double MAX_SCALE = 4;
+
+    private final double viewWidth;
+    private final double viewHeight;
+    private final double fieldWidth;
+    private final double fieldHeight;
+
+    private double offsetX = 0;
+    private double offsetY = 0;
+    private double scale = 1;
+
+    public Camera(double viewWidth, double viewHeight, double fieldWidth, double fieldHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.fieldWidth = fieldWidth;
+        this.fieldHeight = fieldHeight;
+    }
+
+    // Smallest scale, which fits the whole field in the view
+    public double getMinScale() {
+        return Math.min(1, Math.min(viewWidth / fieldWidth, viewHeight / fieldHeight));
+    }
+
+    // Moves the field by the given screen distance, as when dragging it
+    public void pan(double screenDx, double screenDy) {
+        offsetX -= screenDx / scale;
+        offsetY -= screenDy / scale;
+        clampOffsets();
+    }
+
+    // Scales by the factor, keeping the field point under the screen position in place
+    public void zoomAt(double factor, double screenX, double screenY) {
+        double worldX = toWorldX(screenX);
+        double worldY = toWorldY(screenY);
+        scale = Math.max(getMinScale(), Math.min(MAX_SCALE, scale * factor));
+        offsetX = worldX - screenX / scale;
+        offsetY = worldY - screenY / scale;
+        clampOffsets();
+    }
+
+    private void clampOffsets() {
+        offsetX = clampOffset(offsetX, fieldWidth, viewWidth / scale);
+        offsetY = clampOffset(offsetY, fieldHeight, viewHeight / scale);
+    }
+
+    private static double clampOffset(double offset, double fieldSize, double visibleSize) {
+        if (visibleSize >= fieldSize) return 0;
+        return Math.max(0, Math.min(offset, fieldSize - visibleSize));
+    }
+
+    public double toScreenX(double worldX) {
+        return (worldX - offsetX) * scale;
+    }
+
+    public double toScreenY(double worldY) {
+        return (worldY - offsetY) * scale;
+    }
+
+    public double toWorldX(double screenX) {
+        return offsetX + screenX / scale;
+    }
+
+    public double toWorldY(double screenY) {
+        return offsetY + screenY / scale;
+    }
+
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    public double getOffsetY() {
+        return offsetY;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getViewWidth() {
+        return viewWidth;
+    }
+
+    public double getViewHeight() {
+        return viewHeight;
+    }
+}
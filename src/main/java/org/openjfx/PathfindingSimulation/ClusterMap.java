@@ -0,0 +1,280 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Cluster abstraction used by HierarchicalSearch, shared by every thread searching one grid.
+// The grid is split into square clusters, and each open stretch of cluster border gets
+// one or two entrance cells with the costs between them precomputed. Changing a cell
+// marks the clusters around it dirty, and the next query rebuilds just those clusters.
+// Readers get an immutable View, so rebuilding never disturbs a search in progress.
+public class ClusterMap implements GridListener {
+    static final int DEFAULT_CLUSTER_SIZE = 10;
+
+    // Open stretches at least this long get an entrance at each end instead of one in the middle
+    private static final int SPLIT_ENTRANCE_LENGTH = 6;
+
+    private final Grid grid;
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+
+    // Guarded by this map's lock
+    private final Cluster[] clusters;
+    private final boolean[] dirty;
+    private final ClusterSearch buildSearch;
+
+    private volatile boolean anyDirty = true;
+    private volatile View view;
+
+    static final class Cluster {
+        final int minX;
+        final int minY;
+        final int maxX;
+        final int maxY;
+
+        final int[] entrances;
+        // Cells in neighboring clusters reachable in one step from each entrance
+        final int[][] partners;
+        // Cheapest path inside the cluster between each pair of entrances, or Integer.MAX_VALUE
+        final int[][] distances;
+
+        Cluster(int minX, int minY, int maxX, int maxY, int[] entrances, int[][] partners, int[][] distances) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.entrances = entrances;
+            this.partners = partners;
+            this.distances = distances;
+        }
+
+        // Index of the cell among this cluster's entrances, or -1
+        int slotOf(int cell) {
+            for (int i = 0; i < entrances.length; ++i) {
+                if (entrances[i] == cell) return i;
+            }
+            return -1;
+        }
+    }
+
+    // Consistent set of clusters together with the snapshot they were built from. Entrances
+    // are numbered 0 to getNodeCount() - 1, cluster by cluster, so abstract searches can
+    // keep their state in arrays sized to the entrance graph rather than the grid.
+    static final class View {
+        final GridSnapshot snapshot;
+        private final Cluster[] clusters;
+        private final int clusterSize;
+        private final int clustersX;
+        private final int width;
+
+        // Number of each cluster's first entrance, and the cell of every entrance
+        private final int[] firstNode;
+        private final int[] nodeCells;
+
+        View(GridSnapshot snapshot, Cluster[] clusters, int clusterSize, int clustersX) {
+            this.snapshot = snapshot;
+            this.clusters = clusters;
+            this.clusterSize = clusterSize;
+            this.clustersX = clustersX;
+            this.width = snapshot.getWidth();
+
+            this.firstNode = new int[clusters.length];
+            int nodeCount = 0;
+            for (int i = 0; i < clusters.length; ++i) {
+                firstNode[i] = nodeCount;
+                nodeCount += clusters[i].entrances.length;
+            }
+            this.nodeCells = new int[nodeCount];
+            for (int i = 0; i < clusters.length; ++i) {
+                System.arraycopy(clusters[i].entrances, 0, nodeCells, firstNode[i], clusters[i].entrances.length);
+            }
+        }
+
+        Cluster clusterAt(int x, int y) {
+            return clusters[indexOf(x, y)];
+        }
+
+        int getClusterSize() {
+            return clusterSize;
+        }
+
+        int getNodeCount() {
+            return nodeCells.length;
+        }
+
+        // Number of the entrance at the given slot of the cluster holding the cell
+        int nodeOf(int cell, int slot) {
+            return firstNode[indexOf(cell % width, cell / width)] + slot;
+        }
+
+        int cellOf(int node) {
+            return nodeCells[node];
+        }
+
+        private int indexOf(int x, int y) {
+            return (y / clusterSize) * clustersX + x / clusterSize;
+        }
+    }
+
+    public ClusterMap(Grid grid) {
+        this(grid, DEFAULT_CLUSTER_SIZE);
+    }
+
+    public ClusterMap(Grid grid, int clusterSize) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.clusterSize = clusterSize;
+        this.clustersX = (width + clusterSize - 1) / clusterSize;
+        this.clustersY = (height + clusterSize - 1) / clusterSize;
+
+        this.clusters = new Cluster[clustersX * clustersY];
+        this.dirty = new boolean[clusters.length];
+        Arrays.fill(dirty, true);
+        this.buildSearch = new ClusterSearch(grid, clusterSize);
+
+        grid.addListener(this);
+    }
+
+    // Up-to-date clusters, rebuilding any that are dirty
+    View current() {
+        View current = view;
+        if (current != null && !anyDirty) {
+            return current;
+        }
+        return refresh();
+    }
+
+    @Override
+    public synchronized void cellChanged(int x, int y) {
+        // Entrances on a shared border belong to the clusters on both sides
+        for (int dy = -1; dy <= 1; ++dy) {
+            for (int dx = -1; dx <= 1; ++dx) {
+                int cellX = x + dx;
+                int cellY = y + dy;
+                if (cellX >= 0 && cellX < width && cellY >= 0 && cellY < height) {
+                    dirty[(cellY / clusterSize) * clustersX + cellX / clusterSize] = true;
+                }
+            }
+        }
+        anyDirty = true;
+    }
+
+    @Override
+    public synchronized void gridCleared() {
+        Arrays.fill(dirty, true);
+        anyDirty = true;
+    }
+
+    private synchronized View refresh() {
+        if (view != null && !anyDirty) {
+            return view;
+        }
+
+        // Cells are marked dirty after the change is visible, so this snapshot includes it
+        anyDirty = false;
+        GridSnapshot snapshot = grid.snapshot();
+        for (int cy = 0; cy < clustersY; ++cy) {
+            for (int cx = 0; cx < clustersX; ++cx) {
+                int index = cy * clustersX + cx;
+                if (dirty[index]) {
+                    clusters[index] = buildCluster(snapshot, cx * clusterSize, cy * clusterSize,
+                            Math.min(width, (cx + 1) * clusterSize) - 1, Math.min(height, (cy + 1) * clusterSize) - 1);
+                    dirty[index] = false;
+                }
+            }
+        }
+
+        view = new View(snapshot, clusters.clone(), clusterSize, clustersX);
+        return view;
+    }
+
+    private Cluster buildCluster(GridSnapshot snapshot, int minX, int minY, int maxX, int maxY) {
+        // Pairs of (entrance, partner) found along each border
+        List<int[]> transitions = new ArrayList<>();
+        if (minX > 0) {
+            findTransitions(snapshot, minX, minY, 0, 1, -1, 0, maxY - minY + 1, transitions);
+        }
+        if (maxX < width - 1) {
+            findTransitions(snapshot, maxX, minY, 0, 1, 1, 0, maxY - minY + 1, transitions);
+        }
+        if (minY > 0) {
+            findTransitions(snapshot, minX, minY, 1, 0, 0, -1, maxX - minX + 1, transitions);
+        }
+        if (maxY < height - 1) {
+            findTransitions(snapshot, minX, maxY, 1, 0, 0, 1, maxX - minX + 1, transitions);
+        }
+
+        // A corner cell can be an entrance on two borders, so merge by cell
+        List<Integer> entranceList = new ArrayList<>();
+        List<List<Integer>> partnerList = new ArrayList<>();
+        for (int[] transition : transitions) {
+            int slot = entranceList.indexOf(transition[0]);
+            if (slot == -1) {
+                slot = entranceList.size();
+                entranceList.add(transition[0]);
+                partnerList.add(new ArrayList<>());
+            }
+            partnerList.get(slot).add(transition[1]);
+        }
+
+        int count = entranceList.size();
+        int[] entrances = new int[count];
+        int[][] partners = new int[count][];
+        int[][] distances = new int[count][count];
+        for (int i = 0; i < count; ++i) {
+            entrances[i] = entranceList.get(i);
+            partners[i] = partnerList.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        for (int i = 0; i < count; ++i) {
+            int from = entrances[i];
+            for (int j = i + 1; j < count; ++j) {
+                int to = entrances[j];
+                int cost = buildSearch.findCostWithin(snapshot, from % width, from / width, to % width, to / width,
+                        minX, minY, maxX, maxY);
+                distances[i][j] = cost;
+                distances[j][i] = cost;
+            }
+        }
+
+        return new Cluster(minX, minY, maxX, maxY, entrances, partners, distances);
+    }
+
+    // Scans one border starting at (x, y) and stepping by (stepX, stepY), where the
+    // neighboring cluster lies at (acrossX, acrossY). Each open stretch adds transitions.
+    private void findTransitions(GridSnapshot snapshot, int x, int y, int stepX, int stepY, int acrossX, int acrossY,
+            int length, List<int[]> transitions) {
+        int runStart = -1;
+        for (int i = 0; i <= length; ++i) {
+            int cellX = x + i * stepX;
+            int cellY = y + i * stepY;
+            boolean open = i < length && snapshot.isWalkable(cellX, cellY)
+                    && snapshot.isWalkable(cellX + acrossX, cellY + acrossY);
+
+            if (open && runStart == -1) {
+                runStart = i;
+            } else if (!open && runStart != -1) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= SPLIT_ENTRANCE_LENGTH) {
+                    addTransition(x, y, stepX, stepY, acrossX, acrossY, runStart, transitions);
+                    addTransition(x, y, stepX, stepY, acrossX, acrossY, runEnd, transitions);
+                } else {
+                    addTransition(x, y, stepX, stepY, acrossX, acrossY, (runStart + runEnd) / 2, transitions);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(int x, int y, int stepX, int stepY, int acrossX, int acrossY, int offset,
+            List<int[]> transitions) {
+        int cellX = x + offset * stepX;
+        int cellY = y + offset * stepY;
+        transitions.add(new int[] { cellY * width + cellX, (cellY + acrossY) * width + cellX + acrossX });
+    }
+}
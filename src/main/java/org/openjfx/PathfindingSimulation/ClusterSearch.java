@@ -0,0 +1,144 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// A* confined to one cluster of a ClusterMap, or any rectangle no larger. State is
+// indexed relative to the rectangle's corner, so the arrays hold one cluster's cells
+// however large the grid is. Used to refine HPA* legs and to measure entrance costs;
+// each instance belongs to one thread.
+final class ClusterSearch {
+    private final Grid grid;
+    private final int size;
+
+    // Per-cell state for cells of the current cluster, valid when the stamp matches
+    private final int[] gCost;
+    private final int[] parent;
+    private final int[] openedStamp;
+    private final int[] closedStamp;
+    private int generation = 0;
+    private final IndexedMinHeap openSet;
+
+    private int nodesExpanded;
+
+    // Rectangle of the search in progress
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    ClusterSearch(Grid grid, int clusterSize) {
+        this.grid = grid;
+        this.size = clusterSize;
+
+        int cellCount = clusterSize * clusterSize;
+        this.gCost = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.openedStamp = new int[cellCount];
+        this.closedStamp = new int[cellCount];
+        this.openSet = new IndexedMinHeap(cellCount);
+    }
+
+    // Cells of a cheapest path inside the rectangle, or an empty list if there is none
+    List<GridNode> findPathWithin(GridSnapshot snapshot, int startX, int startY, int goalX, int goalY,
+            int minX, int minY, int maxX, int maxY) {
+        List<GridNode> path = new ArrayList<>();
+        if (!search(snapshot, startX, startY, goalX, goalY, minX, minY, maxX, maxY)) {
+            return path;
+        }
+
+        for (int local = toLocal(goalX, goalY); local != -1; local = parent[local]) {
+            path.add(grid.getNode(minX + local % size, minY + local / size));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Cost of a cheapest path inside the rectangle, or Integer.MAX_VALUE if there is none
+    int findCostWithin(GridSnapshot snapshot, int startX, int startY, int goalX, int goalY,
+            int minX, int minY, int maxX, int maxY) {
+        if (search(snapshot, startX, startY, goalX, goalY, minX, minY, maxX, maxY)) {
+            return gCost[toLocal(goalX, goalY)];
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    int getPeakOpenSetSize() {
+        return openSet.getPeakSize();
+    }
+
+    // The rectangle must fit within the cluster size this search was made for
+    private boolean search(GridSnapshot snapshot, int startX, int startY, int goalX, int goalY,
+            int minX, int minY, int maxX, int maxY) {
+        nodesExpanded = 0;
+        openSet.clear();
+        Heuristic estimate = grid.getHeuristic().forSnapshot(snapshot);
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        if (!inCluster(goalX, goalY) || !snapshot.isWalkable(goalX, goalY)) {
+            return false;
+        }
+
+        if (++generation == 0) {
+            Arrays.fill(openedStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            generation = 1;
+        }
+
+        int goal = toLocal(goalX, goalY);
+        open(toLocal(startX, startY), 0, -1, estimate.estimate(startX, startY, goalX, goalY));
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == goal) return true;
+
+            closedStamp[current] = generation;
+            ++nodesExpanded;
+
+            int currentX = minX + current % size;
+            int currentY = minY + current / size;
+            int mask = snapshot.neighborMask(currentX, currentY);
+            for (int dir = 0; dir < 8; ++dir) {
+                if ((mask & (1 << dir)) == 0) continue;
+
+                // A diagonal inside the cluster also has both of its orthogonal cells inside
+                int newX = currentX + AStarSearch.DIR_X[dir];
+                int newY = currentY + AStarSearch.DIR_Y[dir];
+                if (!inCluster(newX, newY)) continue;
+
+                int successor = toLocal(newX, newY);
+                if (closedStamp[successor] == generation) continue;
+
+                int tentativeGCost = gCost[current] + (dir < 4 ? Grid.STRAIGHT_COST : Grid.DIAGONAL_COST);
+                if (openedStamp[successor] != generation || tentativeGCost < gCost[successor]) {
+                    open(successor, tentativeGCost, current, estimate.estimate(newX, newY, goalX, goalY));
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void open(int local, int g, int from, int h) {
+        gCost[local] = g;
+        parent[local] = from;
+        openedStamp[local] = generation;
+        openSet.insertOrUpdate(local, g + h, h);
+    }
+
+    private boolean inCluster(int x, int y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    private int toLocal(int x, int y) {
+        return (y - minY) * size + x - minX;
+    }
+}
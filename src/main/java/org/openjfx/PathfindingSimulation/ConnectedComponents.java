@@ -0,0 +1,393 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.Arrays;
+
+// Connected regions of walkable cells, shared by every thread searching one grid, so
+// Grid.findPath can turn down a query whose start and goal can never meet instead of
+// exploring everything reachable from the start. Diagonal steps never cut corners, so
+// two cells are connected exactly when a route of straight steps joins them.
+//
+// Every walkable cell holds a label, and labels joined by union-find name one component.
+// Opening a cell unions the labels around it. Closing a cell can split its component: the
+// open cells around it are flooded in turns until only one flood is still running. Each
+// flood relabels the cells it reaches, so floods that ran out become components of their
+// own, and a split costs about the size of the smaller pieces rather than the whole region.
+//
+// Queries never take the lock. Labels are stored in chunks that are shared with the last
+// published snapshot until they are edited, so the first query after a batch of edits
+// only copies the chunks that changed, along with the root of every label.
+public class ConnectedComponents implements GridListener {
+    private static final int BLOCKED = -1;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    // Neighbors around a cell in ring order, starting north and going clockwise
+    private static final int[] RING_X = { 0, 1, 1, 1, 0, -1, -1, -1 };
+    private static final int[] RING_Y = { -1, -1, 0, 1, 1, 1, 0, -1 };
+
+    private final Grid grid;
+    private final int width;
+    private final int height;
+    private final int cellCount;
+
+    // Labels and the root of each label as of one query, never modified once published
+    private static final class Snapshot {
+        final int[][] labels;
+        final int[] roots;
+
+        Snapshot(int[][] labels, int[] roots) {
+            this.labels = labels;
+            this.roots = roots;
+        }
+
+        int componentOf(int cell) {
+            int label = labels[cell >>> CHUNK_SHIFT][cell & CHUNK_MASK];
+            return label == BLOCKED ? BLOCKED : roots[label];
+        }
+    }
+
+    // Guarded by this object's lock. Walkability is read from the labels rather than the
+    // grid, so changes are applied one at a time in the order the listener sees them.
+    // A chunk marked shared also belongs to the published snapshot and is copied before it
+    // is written.
+    private final int[][] labels;
+    private final boolean[] shared;
+    private int[] parent = new int[16];
+    private int[] rank = new int[16];
+    private int labelCount;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    // Scratch space for floods
+    private final int[][] floodQueues = new int[4][16];
+    private final int[] floodHeads = new int[4];
+    private final int[] floodTails = new int[4];
+    private final int[] floodGroups = new int[4];
+    private final boolean[] floodDone = new boolean[4];
+
+    public ConnectedComponents(Grid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.cellCount = width * height;
+
+        int chunkCount = (cellCount + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.labels = new int[chunkCount][];
+        this.shared = new boolean[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; ++chunk) {
+            labels[chunk] = new int[Math.min(CHUNK_MASK + 1, cellCount - (chunk << CHUNK_SHIFT))];
+        }
+
+        // Edits made while labelling are replayed by the listener and found already applied
+        grid.addListener(this);
+        synchronized (this) {
+            labelAll();
+        }
+    }
+
+    // True if both cells are open and no route joins them. Out-of-bounds or blocked cells
+    // are never reported, so the search itself decides what to do with them.
+    boolean areSeparated(int x1, int y1, int x2, int y2) {
+        if (!inBounds(x1, y1) || !inBounds(x2, y2)) return false;
+
+        Snapshot current = current();
+        int first = current.componentOf(y1 * width + x1);
+        int second = current.componentOf(y2 * width + x2);
+        return first != BLOCKED && second != BLOCKED && first != second;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && !stale) {
+            return current;
+        }
+        return publish();
+    }
+
+    private synchronized Snapshot publish() {
+        if (snapshot != null && !stale) {
+            return snapshot;
+        }
+
+        stale = false;
+        int[] roots = new int[labelCount];
+        for (int label = 0; label < labelCount; ++label) {
+            roots[label] = find(label);
+        }
+        Arrays.fill(shared, true);
+        snapshot = new Snapshot(labels.clone(), roots);
+        return snapshot;
+    }
+
+    @Override
+    public synchronized void cellChanged(int x, int y) {
+        int cell = y * width + x;
+        boolean open = grid.isWalkable(x, y);
+        if (open == (label(cell) != BLOCKED)) return;
+
+        stale = true;
+        // Relabelling everything is cheaper than tracking labels that splits left unused
+        if (labelCount > 2 * cellCount + 16) {
+            labelAll();
+            return;
+        }
+
+        if (open) {
+            openCell(x, y);
+        } else {
+            closeCell(x, y);
+        }
+    }
+
+    @Override
+    public synchronized void gridCleared() {
+        labelAll();
+        stale = true;
+    }
+
+    private void openCell(int x, int y) {
+        int label = BLOCKED;
+        for (int i = 0; i < 8; i += 2) {
+            int neighbor = labelAt(x + RING_X[i], y + RING_Y[i]);
+            if (neighbor == BLOCKED) continue;
+
+            label = label == BLOCKED ? find(neighbor) : union(label, neighbor);
+        }
+        setLabel(y * width + x, label == BLOCKED ? newLabel() : label);
+    }
+
+    private void closeCell(int x, int y) {
+        setLabel(y * width + x, BLOCKED);
+
+        // Open cells around the closed one fall into arcs that are still joined to each other
+        // through the ring. Only an arc holding a straight neighbor can be cut off.
+        int arcs = 0;
+        int firstBlocked = -1;
+        for (int i = 0; i < 8; ++i) {
+            if (labelAt(x + RING_X[i], y + RING_Y[i]) == BLOCKED) {
+                firstBlocked = i;
+                break;
+            }
+        }
+        if (firstBlocked == -1) return;
+
+        int[] seeds = floodGroups;
+        int arcSeed = -1;
+        for (int step = 1; step <= 8; ++step) {
+            int i = (firstBlocked + step) & 7;
+            int cellX = x + RING_X[i];
+            int cellY = y + RING_Y[i];
+            if (labelAt(cellX, cellY) == BLOCKED) {
+                if (arcSeed != -1) {
+                    seeds[arcs++] = arcSeed;
+                    arcSeed = -1;
+                }
+            } else if ((i & 1) == 0 && arcSeed == -1) {
+                arcSeed = cellY * width + cellX;
+            }
+        }
+
+        if (arcs > 1) {
+            split(arcs);
+        }
+    }
+
+    // Floods from each seed in floodGroups in turns, giving the cells each flood reaches a
+    // fresh label of its own. Floods that meet join, and a set of joined floods that runs out
+    // of cells is a component of its own. The floods still running when all the others have
+    // stopped stay part of the old component.
+    private void split(int count) {
+        // The seeds were all joined through the closed cell
+        int root = find(label(floodGroups[0]));
+        int firstLabel = labelCount;
+
+        // floodGroups holds the seeds on entry and the join set of each flood afterwards
+        for (int flood = 0; flood < count; ++flood) {
+            int seed = floodGroups[flood];
+            setLabel(seed, newLabel());
+            floodQueues[flood][0] = seed;
+            floodHeads[flood] = 0;
+            floodTails[flood] = 1;
+            floodGroups[flood] = flood;
+            floodDone[flood] = false;
+        }
+
+        int running = count;
+        while (running > 1) {
+            for (int flood = 0; flood < count; ++flood) {
+                if (floodHeads[flood] == floodTails[flood]) continue;
+
+                int cell = floodQueues[flood][floodHeads[flood]++];
+                int cellX = cell % width;
+                int cellY = cell / width;
+                for (int i = 0; i < 8; i += 2) {
+                    int nextX = cellX + RING_X[i];
+                    int nextY = cellY + RING_Y[i];
+                    int label = labelAt(nextX, nextY);
+                    if (label == BLOCKED) continue;
+
+                    int mark = label - firstLabel;
+                    if (mark < 0 || mark >= count) {
+                        int next = nextY * width + nextX;
+                        setLabel(next, firstLabel + flood);
+                        push(flood, next);
+                    } else {
+                        int group = floodGroups[flood];
+                        int other = floodGroups[mark];
+                        if (group != other) {
+                            for (int j = 0; j < count; ++j) {
+                                if (floodGroups[j] == other) floodGroups[j] = group;
+                            }
+                            --running;
+                        }
+                    }
+                }
+            }
+
+            // A group whose floods have all stopped is cut off from the rest
+            for (int group = 0; group < count && running > 1; ++group) {
+                if (floodDone[group] || !isExhausted(group, count)) continue;
+
+                for (int flood = 0; flood < count; ++flood) {
+                    if (floodGroups[flood] == group) {
+                        union(firstLabel + group, firstLabel + flood);
+                    }
+                }
+                floodDone[group] = true;
+                --running;
+            }
+        }
+
+        for (int flood = 0; flood < count; ++flood) {
+            if (!floodDone[floodGroups[flood]]) {
+                union(root, firstLabel + flood);
+            }
+            if (floodQueues[flood].length > 4096) {
+                floodQueues[flood] = new int[16];
+            }
+        }
+    }
+
+    private boolean isExhausted(int group, int count) {
+        boolean member = false;
+        for (int flood = 0; flood < count; ++flood) {
+            if (floodGroups[flood] != group) continue;
+            if (floodHeads[flood] != floodTails[flood]) return false;
+            member = true;
+        }
+        return member;
+    }
+
+    private void push(int flood, int cell) {
+        if (floodTails[flood] == floodQueues[flood].length) {
+            floodQueues[flood] = Arrays.copyOf(floodQueues[flood], floodQueues[flood].length * 2);
+        }
+        floodQueues[flood][floodTails[flood]++] = cell;
+    }
+
+    // Labels every open cell from the grid, one flood per component
+    private void labelAll() {
+        // Every label is rewritten, so shared chunks are replaced rather than copied
+        for (int chunk = 0; chunk < labels.length; ++chunk) {
+            if (shared[chunk]) {
+                labels[chunk] = new int[labels[chunk].length];
+                shared[chunk] = false;
+            }
+            Arrays.fill(labels[chunk], BLOCKED);
+        }
+        labelCount = 0;
+
+        int[] queue = floodQueues[0];
+        for (int start = 0; start < cellCount; ++start) {
+            if (label(start) != BLOCKED || !grid.isWalkable(start % width, start / width)) continue;
+
+            int label = newLabel();
+            setLabel(start, label);
+            queue[0] = start;
+            int head = 0;
+            int tail = 1;
+            while (head < tail) {
+                int cell = queue[head++];
+                int cellX = cell % width;
+                int cellY = cell / width;
+                for (int i = 0; i < 8; i += 2) {
+                    int nextX = cellX + RING_X[i];
+                    int nextY = cellY + RING_Y[i];
+                    if (!inBounds(nextX, nextY)) continue;
+
+                    int next = nextY * width + nextX;
+                    if (label(next) == BLOCKED && grid.isWalkable(nextX, nextY)) {
+                        setLabel(next, label);
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, queue.length * 2);
+                        }
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        // Keep the grown queue, but not one sized for the whole grid
+        floodQueues[0] = queue.length <= 4096 ? queue : new int[16];
+    }
+
+    private int labelAt(int x, int y) {
+        return inBounds(x, y) ? label(y * width + x) : BLOCKED;
+    }
+
+    private int label(int cell) {
+        return labels[cell >>> CHUNK_SHIFT][cell & CHUNK_MASK];
+    }
+
+    private void setLabel(int cell, int label) {
+        int chunk = cell >>> CHUNK_SHIFT;
+        if (shared[chunk]) {
+            labels[chunk] = labels[chunk].clone();
+            shared[chunk] = false;
+        }
+        labels[chunk][cell & CHUNK_MASK] = label;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private int newLabel() {
+        if (labelCount == parent.length) {
+            parent = Arrays.copyOf(parent, labelCount * 2);
+            rank = Arrays.copyOf(rank, labelCount * 2);
+        }
+        parent[labelCount] = labelCount;
+        rank[labelCount] = 0;
+        return labelCount++;
+    }
+
+    private int find(int label) {
+        while (parent[label] != label) {
+            // Path halving
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    // Joins the two labels' components and returns the resulting root
+    private int union(int first, int second) {
+        int a = find(first);
+        int b = find(second);
+        if (a == b) return a;
+
+        if (rank[a] < rank[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parent[b] = a;
+        if (rank[a] == rank[b]) {
+            ++rank[a];
+        }
+        return a;
+    }
+}
@@ -0,0 +1,320 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Incremental planner (D* Lite) that keeps its search tree between calls.
+// The search runs backward from the goal, so when the start moves or a few cells change
+// through Grid.setObstacle only the inconsistent part of the tree is repaired.
+// A new goal, or a cleared grid, starts a fresh search.
+// Each agent owns its planner; unlike Grid.findPath it is not meant to be shared between threads.
+public class DStarLite implements GridListener {
+    // Sums involving it stay at it, see add
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final Grid grid;
+    private final int width;
+    private final int height;
+
+    // Cost-to-goal estimate and one-step lookahead value per cell
+    private final int[] gCost;
+    private final int[] rhs;
+    private final int[] stamp;
+    private int generation = 0;
+
+    private final IndexedMinHeap openSet;
+    private int keyModifier;
+
+    private int start = -1;
+    private int goal = -1;
+    private int lastStart = -1;
+    private boolean needsReset = true;
+
+    // Cells changed since the last replan
+    private int[] changedCells = new int[16];
+    private int changedCount = 0;
+
+    private int nodesExpanded;
+
+    public DStarLite(Grid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+
+        int cellCount = width * height;
+        this.gCost = new int[cellCount];
+        this.rhs = new int[cellCount];
+        this.stamp = new int[cellCount];
+        this.openSet = new IndexedMinHeap(cellCount);
+
+        grid.addListener(this);
+    }
+
+    // Returns the nodes from start to goal, or an empty list if there is no path. A start and
+    // goal in different components fail at once, leaving the search tree for the next call.
+    public List<GridNode> findPath(GridNode startNode, GridNode goalNode) {
+        SearchEvent event = Grid.beginSearchEvent();
+        long startTime = System.nanoTime();
+        int newStart = startNode.getYPos() * width + startNode.getXPos();
+        int newGoal = goalNode.getYPos() * width + goalNode.getXPos();
+        nodesExpanded = 0;
+
+        if (grid.areSeparated(startNode.getXPos(), startNode.getYPos(), goalNode.getXPos(), goalNode.getYPos())) {
+            PathfindingMetrics.get().recordSearch(System.nanoTime() - startTime, 0, 0);
+            Grid.commitSearchEvent(event, "DSTAR_LITE", startNode.getXPos(), startNode.getYPos(), goalNode.getXPos(),
+                    goalNode.getYPos(), 0, 0, true);
+            return new ArrayList<>();
+        }
+
+        if (needsReset || newGoal != goal) {
+            reset(newStart, newGoal);
+        } else {
+            // Keys already queued were made for the old start, so every later key is raised
+            // by how far the start has moved to keep them comparable
+            start = newStart;
+            if (start != lastStart) {
+                keyModifier += heuristic(lastStart, start);
+                lastStart = start;
+            }
+            if (changedCount > 0) {
+                applyChanges();
+            }
+        }
+
+        computeShortestPath();
+        List<GridNode> path = extractPath();
+
+        // The open set carries over between calls, so its peak covers every call since the last reset
+        PathfindingMetrics.get().recordSearch(System.nanoTime() - startTime, nodesExpanded, openSet.getPeakSize());
+        Grid.commitSearchEvent(event, "DSTAR_LITE", startNode.getXPos(), startNode.getYPos(), goalNode.getXPos(),
+                goalNode.getYPos(), path.size(), nodesExpanded, false);
+        return path;
+    }
+
+    // Number of nodes expanded by the most recent findPath call
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public void cellChanged(int x, int y) {
+        if (needsReset) return;
+
+        if (changedCount == changedCells.length) {
+            changedCells = Arrays.copyOf(changedCells, changedCount * 2);
+        }
+        changedCells[changedCount++] = y * width + x;
+    }
+
+    @Override
+    public void gridCleared() {
+        needsReset = true;
+        changedCount = 0;
+    }
+
+    private void reset(int newStart, int newGoal) {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        openSet.clear();
+        keyModifier = 0;
+        changedCount = 0;
+        needsReset = false;
+
+        start = newStart;
+        lastStart = newStart;
+        goal = newGoal;
+
+        touch(goal);
+        rhs[goal] = 0;
+        openSet.insertOrUpdate(goal, heuristic(start, goal), 0);
+    }
+
+    // Edge costs around a changed cell depend on it, including diagonals that pass its corner
+    private void applyChanges() {
+        for (int i = 0; i < changedCount; ++i) {
+            int x = changedCells[i] % width;
+            int y = changedCells[i] / width;
+            for (int dy = -1; dy <= 1; ++dy) {
+                for (int dx = -1; dx <= 1; ++dx) {
+                    int cellX = x + dx;
+                    int cellY = y + dy;
+                    if (cellX < 0 || cellX >= width || cellY < 0 || cellY >= height) continue;
+
+                    int cell = cellY * width + cellX;
+                    if (cell != goal) {
+                        touch(cell);
+                        rhs[cell] = lookahead(cell);
+                    }
+                    updateVertex(cell);
+                }
+            }
+        }
+        changedCount = 0;
+    }
+
+    private void computeShortestPath() {
+        while (!openSet.isEmpty()
+                && (openSet.peekKey() <= primaryKey(start) || rhs(start) > g(start))) {
+            int current = openSet.peek();
+            int oldKey = openSet.peekKey();
+            int oldSecondaryKey = openSet.peekSecondaryKey();
+            int newKey = primaryKey(current);
+            int newSecondaryKey = secondaryKey(current);
+            ++nodesExpanded;
+
+            if (keyLess(oldKey, oldSecondaryKey, newKey, newSecondaryKey)) {
+                // The key is stale because the start moved since it was queued
+                openSet.update(current, newKey, newSecondaryKey);
+            } else if (g(current) > rhs(current)) {
+                // Overconsistent: settle the cell and propagate the lower cost
+                gCost[current] = rhs[current];
+                openSet.poll();
+                for (int dir = 0; dir < 8; ++dir) {
+                    int neighbor = neighbor(current, dir);
+                    if (neighbor == -1 || neighbor == goal) continue;
+
+                    int cost = add(edgeCost(neighbor, current), gCost[current]);
+                    if (cost < rhs(neighbor)) {
+                        touch(neighbor);
+                        rhs[neighbor] = cost;
+                        updateVertex(neighbor);
+                    }
+                }
+            } else {
+                // Underconsistent: raise the cell and recompute everything that relied on it
+                int oldGCost = gCost[current];
+                gCost[current] = INFINITY;
+                for (int dir = 0; dir < 8; ++dir) {
+                    int neighbor = neighbor(current, dir);
+                    if (neighbor == -1 || neighbor == goal) continue;
+
+                    if (rhs(neighbor) == add(edgeCost(neighbor, current), oldGCost)) {
+                        touch(neighbor);
+                        rhs[neighbor] = lookahead(neighbor);
+                        updateVertex(neighbor);
+                    }
+                }
+                updateVertex(current);
+            }
+        }
+    }
+
+    // Follows the cheapest successor from the start until reaching the goal
+    private List<GridNode> extractPath() {
+        List<GridNode> path = new ArrayList<>();
+        if (rhs(start) == INFINITY) {
+            return path;
+        }
+
+        int current = start;
+        path.add(grid.getNode(current % width, current / width));
+        while (current != goal) {
+            int next = -1;
+            int best = INFINITY;
+            for (int dir = 0; dir < 8; ++dir) {
+                int neighbor = neighbor(current, dir);
+                if (neighbor == -1) continue;
+
+                int cost = add(edgeCost(current, neighbor), g(neighbor));
+                if (cost < best) {
+                    best = cost;
+                    next = neighbor;
+                }
+            }
+
+            // Guards against following an inconsistent tree forever
+            if (next == -1 || path.size() > width * height) {
+                return new ArrayList<>();
+            }
+
+            current = next;
+            path.add(grid.getNode(current % width, current / width));
+        }
+
+        return path;
+    }
+
+    private void updateVertex(int cell) {
+        if (g(cell) != rhs(cell)) {
+            openSet.insertOrUpdate(cell, primaryKey(cell), secondaryKey(cell));
+        } else {
+            openSet.remove(cell);
+        }
+    }
+
+    // Best cost to the goal through any successor
+    private int lookahead(int cell) {
+        int best = INFINITY;
+        for (int dir = 0; dir < 8; ++dir) {
+            int neighbor = neighbor(cell, dir);
+            if (neighbor != -1) {
+                best = Math.min(best, add(edgeCost(cell, neighbor), g(neighbor)));
+            }
+        }
+        return best;
+    }
+
+    private int primaryKey(int cell) {
+        return add(Math.min(g(cell), rhs(cell)), heuristic(start, cell) + keyModifier);
+    }
+
+    private int secondaryKey(int cell) {
+        return Math.min(g(cell), rhs(cell));
+    }
+
+    private static boolean keyLess(int key, int secondaryKey, int otherKey, int otherSecondaryKey) {
+        return key < otherKey || (key == otherKey && secondaryKey < otherSecondaryKey);
+    }
+
+    // Octile distance, which never overestimates and stays consistent with the edge costs
+    private int heuristic(int from, int to) {
+        return Grid.segmentCost(from % width, from / width, to % width, to / width);
+    }
+
+    // Cost of moving between two adjacent cells, infinite if either is blocked or a corner is cut
+    private int edgeCost(int from, int to) {
+        int fromX = from % width;
+        int fromY = from / width;
+        int toX = to % width;
+        int toY = to / width;
+
+        if (!grid.isWalkable(fromX, fromY) || !grid.isWalkable(toX, toY)) return INFINITY;
+        if (fromX != toX && fromY != toY) {
+            if (!grid.isWalkable(fromX, toY) || !grid.isWalkable(toX, fromY)) return INFINITY;
+            return Grid.DIAGONAL_COST;
+        }
+        return Grid.STRAIGHT_COST;
+    }
+
+    private int neighbor(int cell, int dir) {
+        int x = cell % width + AStarSearch.DIR_X[dir];
+        int y = cell / width + AStarSearch.DIR_Y[dir];
+        if (x < 0 || x >= width || y < 0 || y >= height) return -1;
+        return y * width + x;
+    }
+
+    // Sum of two costs, infinite if either one is
+    private static int add(int cost, int otherCost) {
+        return cost == INFINITY || otherCost == INFINITY ? INFINITY : cost + otherCost;
+    }
+
+    private int g(int cell) {
+        return stamp[cell] == generation ? gCost[cell] : INFINITY;
+    }
+
+    private int rhs(int cell) {
+        return stamp[cell] == generation ? rhs[cell] : INFINITY;
+    }
+
+    // Gives a cell its initial values the first time this search touches it
+    private void touch(int cell) {
+        if (stamp[cell] != generation) {
+            stamp[cell] = generation;
+            gCost[cell] = INFINITY;
+            rhs[cell] = INFINITY;
+        }
+    }
+}
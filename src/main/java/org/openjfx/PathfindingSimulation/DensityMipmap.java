@@ -0,0 +1,117 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.Arrays;
+
+// Obstacle density of a grid snapshot at power-of-two block sizes, so a zoomed-out view
+// can draw one pixel per block instead of one shape per obstacle. Level k holds blocks of
+// 2^k by 2^k cells, from 0 when the block is open to 255 when it is fully blocked.
+// Levels start at MIN_LEVEL; views read smaller blocks from the snapshot itself.
+public class DensityMipmap {
+    static final int MIN_LEVEL = 2;
+
+    private final long version;
+    private final int width;
+    private final int height;
+
+    // Indexed by level - MIN_LEVEL, each in row-major block order
+    private final byte[][] levels;
+    private final int[] levelWidths;
+
+    public DensityMipmap(GridSnapshot snapshot) {
+        this.version = snapshot.getVersion();
+        this.width = snapshot.getWidth();
+        this.height = snapshot.getHeight();
+
+        // Stop once one block covers the whole grid
+        int maxLevel = Math.max(MIN_LEVEL, 32 - Integer.numberOfLeadingZeros(Math.max(width, height) - 1));
+        levels = new byte[maxLevel - MIN_LEVEL + 1][];
+        levelWidths = new int[levels.length];
+
+        buildFirstLevel(snapshot);
+        for (int level = MIN_LEVEL + 1; level <= maxLevel; ++level) {
+            buildLevel(level);
+        }
+    }
+
+    // Counts blocked cells directly; blocks cut off by the grid's edge use the cells they have
+    private void buildFirstLevel(GridSnapshot snapshot) {
+        int blockSize = 1 << MIN_LEVEL;
+        int blocksX = blocks(width, MIN_LEVEL);
+        int blocksY = blocks(height, MIN_LEVEL);
+        int[] blocked = new int[blocksX];
+        byte[] densities = new byte[blocksX * blocksY];
+
+        for (int by = 0; by < blocksY; ++by) {
+            Arrays.fill(blocked, 0);
+            int minY = by * blockSize;
+            int maxY = Math.min(height, minY + blockSize);
+            for (int y = minY; y < maxY; ++y) {
+                for (int x = 0; x < width; ++x) {
+                    if (!snapshot.isWalkable(x, y)) {
+                        ++blocked[x >> MIN_LEVEL];
+                    }
+                }
+            }
+
+            for (int bx = 0; bx < blocksX; ++bx) {
+                int cells = (Math.min(width, (bx + 1) * blockSize) - bx * blockSize) * (maxY - minY);
+                densities[by * blocksX + bx] = (byte) ((blocked[bx] * 255 + cells / 2) / cells);
+            }
+        }
+
+        levels[0] = densities;
+        levelWidths[0] = blocksX;
+    }
+
+    // Averages the up to four blocks of the level below that each block covers, weighted by
+    // how many cells each has, since blocks along the grid's edge are cut short
+    private void buildLevel(int level) {
+        byte[] below = levels[level - 1 - MIN_LEVEL];
+        int belowWidth = levelWidths[level - 1 - MIN_LEVEL];
+        int belowHeight = below.length / belowWidth;
+        int childSize = 1 << (level - 1);
+        int blocksX = blocks(width, level);
+        int blocksY = blocks(height, level);
+        byte[] densities = new byte[blocksX * blocksY];
+
+        for (int by = 0; by < blocksY; ++by) {
+            for (int bx = 0; bx < blocksX; ++bx) {
+                long sum = 0;
+                long cells = 0;
+                for (int dy = 0; dy < 2; ++dy) {
+                    for (int dx = 0; dx < 2; ++dx) {
+                        int childX = 2 * bx + dx;
+                        int childY = 2 * by + dy;
+                        if (childX < belowWidth && childY < belowHeight) {
+                            long childCells = (long) (Math.min(width, (childX + 1) * childSize) - childX * childSize)
+                                    * (Math.min(height, (childY + 1) * childSize) - childY * childSize);
+                            sum += (below[childY * belowWidth + childX] & 0xff) * childCells;
+                            cells += childCells;
+                        }
+                    }
+                }
+                densities[by * blocksX + bx] = (byte) ((sum + cells / 2) / cells);
+            }
+        }
+
+        levels[level - MIN_LEVEL] = densities;
+        levelWidths[level - MIN_LEVEL] = blocksX;
+    }
+
+    private static int blocks(int cells, int level) {
+        return (cells + (1 << level) - 1) >> level;
+    }
+
+    // Density from 0 to 255 of the block holding the cell, for MIN_LEVEL <= level <= getMaxLevel()
+    int density(int level, int x, int y) {
+        return levels[level - MIN_LEVEL][(y >> level) * levelWidths[level - MIN_LEVEL] + (x >> level)] & 0xff;
+    }
+
+    int getMaxLevel() {
+        return MIN_LEVEL + levels.length - 1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
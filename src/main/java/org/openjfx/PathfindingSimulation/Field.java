@@ -1,270 +1,488 @@
 package org.openjfx.PathfindingSimulation;
 
-import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.*;
+import javafx.scene.paint.ImagePattern;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 
+// JavaFX view of a Simulation. The model runs on its own SimulationLoop thread, and this
+// pane only draws the frames it publishes and forwards keyboard input. Everything is painted into two
+// canvases sized to the view, so the scene graph stays at two nodes however large the
+// map or however many obstacles it holds.
+//
+// Dragging pans and scrolling zooms. Only the visible part of the field is drawn, and
+// once squares get too small to make out, the board is drawn one pixel at a time from
+// a density mipmap, so drawing costs depend on the view size rather than the map size.
 public class Field extends Pane {
-	// Number of obstacles on the field
-	private static final int MAX_OBSTACLES = 25;
-	private static final int MIN_OBSTACLES = 15;
+	// Thickness of borders
+	private static final int OBSTACLE_BORDER_WIDTH = 6;
 	
-	// Size of the various obstacles in multiples of the background grid squares
-	private static final int MAX_OBSTACLE_SIZE = 4;
-	private static final int MIN_OBSTACLE_SIZE = 2;
+	// Pixels cleared around the agent's bounds to catch antialiased edges
+	private static final int DIRTY_MARGIN = 2;
 	
-	// Window size
-	private static final int WINDOW_SIZE_WIDTH = 1000;
-	private static final int WINDOW_SIZE_HEIGHT = 1000;
+	// Smallest on-screen square size drawn with shapes rather than as density pixels
+	private static final double DETAIL_SQUARE_SIZE = 4;
 	
-	// Size of background grid squares
-	private static final int GRID_SQUARE_SIZE = 25;
+	// On-screen size of the agent and goal when the board is drawn as density pixels
+	private static final double MARKER_SIZE = 6;
 	
-	// Number of grid squares
-	private static final int NUM_X_SQUARES = WINDOW_SIZE_WIDTH / GRID_SQUARE_SIZE;
-	private static final int NUM_Y_SQUARES = WINDOW_SIZE_HEIGHT / GRID_SQUARE_SIZE;
+	// Obstacles are indexed in square buckets of this many grid squares
+	private static final int BUCKET_SIZE = 32;
 	
-	// Thickness of borders
-	private static final int OBSTACLE_BORDER_WIDTH = 6;
+	// Zoom factor for one scroll step
+	private static final double ZOOM_STEP = 1.25;
 	
-	// Size of target/goal
-	private static final double TARGET_RADIUS = (GRID_SQUARE_SIZE / 2) - (3);
+	// Layout taken from the simulation's map configuration
+	private final int gridSquareSize;
+	private final int windowSizeWidth;
+	private final int windowSizeHeight;
 	
-	// Variable representations
-	private static final int LOSE = 1;
-	private static final int WIN = 2;
-	
-    // Initializes a Random object
-    Random rand = new Random();
-    
-    // Initializes the player object with no properties
-    Player player = new Player();
-    
-    // Initializes the target object with no properties
-    Target target = new Target(GRID_SQUARE_SIZE);
+    // Game state being drawn, only touched through the loop
+    Simulation simulation;
+    SimulationLoop loop;
     
-    // List of obstacle objects
-    List<Rectangle> obstacles = new ArrayList<>();
+    // Painters for the agent and goal
+    Player player;
+    Target target;
+    private final double agentSize;
+    private final int agentBorderWidth;
     
     // List of keys currently pressed
     Set<KeyCode> keysPressed = ConcurrentHashMap.newKeySet();
     
-    // Creates the background and adds it to a Node list
-    List<Node> background = initializeBackground();
+    private final Camera camera;
+    private double dragX;
+    private double dragY;
+    
+    // Board, obstacles and goal, which only change when the field is reset or the camera moves
+    private final Canvas staticLayer;
+    private final ImagePattern checkerboard;
+    
+    // Layout the static layer shows
+    private SimulationLoop.Layout drawnLayout;
+    
+    // Obstacles by the bucket holding their top-left square, rebuilt on reset
+    private final int bucketsX;
+    private final List<List<Obstacle>> obstacleBuckets = new ArrayList<>();
+    private int largestObstacle;
+    
+    // Zoomed-out drawing, created on first use
+    private DensityMipmap densityMipmap;
+    private WritableImage overview;
+    private int[] overviewPixels;
+    
+    // Path and agent, redrawn only around what moved. Drawn bounds are in screen pixels.
+    private final Canvas dynamicLayer;
+    private boolean showPath = false;
+    private List<GridNode> drawnPath;
+    private double drawnMinX;
+    private double drawnMinY;
+    private double drawnMaxX;
+    private double drawnMaxY;
+    
+    public Field() {
+    	this(new MapConfig());
+    }
+    
+    public Field(MapConfig config) {
+    	this(config, config.getWindowWidth(), config.getWindowHeight(), SimulationLoop.DEFAULT_TICK_RATE);
+    }
     
-    // Grid representation for pathfinding
-    Grid grid = new Grid(NUM_X_SQUARES, NUM_Y_SQUARES);
-    GridNode playerPos;
-    List<GridNode> path;
+    // Shows viewWidth by viewHeight pixels of the field, starting at its top-left corner,
+    // with the simulation advancing tickRate times per second of real time
+    public Field(MapConfig config, int viewWidth, int viewHeight, double tickRate) {
+    	simulation = new Simulation(config, new Random());
+    	loop = new SimulationLoop(simulation, tickRate);
+    	gridSquareSize = config.getGridSquareSize();
+    	windowSizeWidth = config.getWindowWidth();
+    	windowSizeHeight = config.getWindowHeight();
+    	
+    	player = new Player(simulation.getAgent());
+    	agentSize = simulation.getAgent().getBodyWidth();
+    	agentBorderWidth = simulation.getAgent().getAgentBorderWidth();
+    	target = new Target(simulation.getTargetRadius());
+    	checkerboard = createCheckerboard();
+    	bucketsX = (config.getGridWidth() + BUCKET_SIZE - 1) / BUCKET_SIZE;
+    	int bucketsY = (config.getGridHeight() + BUCKET_SIZE - 1) / BUCKET_SIZE;
+    	for (int i = 0; i < bucketsX * bucketsY; ++i) {
+    		obstacleBuckets.add(new ArrayList<>());
+    	}
+    	
+    	staticLayer = new Canvas(Math.min(viewWidth, windowSizeWidth), Math.min(viewHeight, windowSizeHeight));
+    	dynamicLayer = new Canvas(staticLayer.getWidth(), staticLayer.getHeight());
+    	this.getChildren().addAll(staticLayer, dynamicLayer);
+    	
+    	camera = new Camera(staticLayer.getWidth(), staticLayer.getHeight(), windowSizeWidth, windowSizeHeight);
+    	this.addEventHandler(MouseEvent.MOUSE_PRESSED, this::startDrag);
+    	this.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::drag);
+    	this.addEventHandler(ScrollEvent.SCROLL, this::zoom);
+    }
 	
-	// Initializes and sets the various field layers
-	public void initializeField() {
-        // Variables for ensuring proper task execution
-        boolean success = false;
-        int attemptLimit = 10;
-        int numAttempts = 0;
-        
-		while (!success && numAttempts++ < attemptLimit) {
-			grid.clear();
-        	this.getChildren().clear();
-        	this.getChildren().addAll(background);
-            initializeObstacles();
-            success = target.initializeTarget(WINDOW_SIZE_WIDTH, WINDOW_SIZE_HEIGHT, GRID_SQUARE_SIZE, obstacles, this, grid);
-            if (success) {
-            	success = player.initializePlayer(WINDOW_SIZE_WIDTH, WINDOW_SIZE_HEIGHT, GRID_SQUARE_SIZE, obstacles, this);
-            }
-        }
-		
-		if (!success) {
-        	System.out.println("ERROR: Unable to initialize field\nExiting program");
-        	System.exit(0);
-        }
+	// Starts the simulation; frames appear once render is called
+	public void start() {
+		loop.start();
+	}
+	
+	public void stop() {
+		loop.stop();
+	}
+	
+	// Draws the latest frame, redrawing the board only when a new layout has been published
+	public void render() {
+		SimulationLoop.Frame frame = loop.getFrame();
+		if (frame == null) return;
 		
-		updatePath();
+		if (frame.layout != drawnLayout) {
+			drawnLayout = frame.layout;
+			indexObstacles();
+			redraw();
+		} else {
+			updateAgent(frame);
+		}
+	}
+	
+	private void redraw() {
+		if (drawnLayout == null) return;
+		drawStaticLayer();
+		drawDynamicLayer(loop.getFrame());
+	}
+	
+	private void startDrag(MouseEvent e) {
+		dragX = e.getX();
+		dragY = e.getY();
+	}
+	
+	private void drag(MouseEvent e) {
+		camera.pan(e.getX() - dragX, e.getY() - dragY);
+		dragX = e.getX();
+		dragY = e.getY();
+		redraw();
+	}
+	
+	private void zoom(ScrollEvent e) {
+		if (e.getDeltaY() == 0) return;
+		camera.zoomAt(e.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getX(), e.getY());
+		redraw();
+	}
+	
+	private boolean isDetailed() {
+		return gridSquareSize * camera.getScale() >= DETAIL_SQUARE_SIZE;
+	}
+	
+	private void indexObstacles() {
+		for (List<Obstacle> bucket : obstacleBuckets) {
+			bucket.clear();
+		}
+		largestObstacle = 0;
+		for (Obstacle obstacle : drawnLayout.obstacles) {
+			int bucketX = obstacle.getXGridPos() / BUCKET_SIZE;
+			int bucketY = obstacle.getYGridPos() / BUCKET_SIZE;
+			obstacleBuckets.get(bucketY * bucketsX + bucketX).add(obstacle);
+			largestObstacle = Math.max(largestObstacle, obstacle.getGridSize());
+		}
 	}
     
-	// Sets up the checkerboard background
-    private static List<Node> initializeBackground() {
-    	List<Node> background = new ArrayList<>();
-    	
-    	for (int i = 0; i < NUM_X_SQUARES; ++i) {
-    		for (int j = i % 2; j < NUM_Y_SQUARES; j+=2) {
-    			Rectangle checkerboard = new Rectangle();
-        		checkerboard.setX(i * GRID_SQUARE_SIZE);
-        		checkerboard.setY(j * GRID_SQUARE_SIZE);
-        		checkerboard.setWidth(GRID_SQUARE_SIZE);
-        		checkerboard.setHeight(GRID_SQUARE_SIZE);
-        		checkerboard.setFill(Color.LAVENDER);
-        		background.add(checkerboard);
+	// Two by two squares with the lavender ones on the diagonal, tiled across the board
+    private ImagePattern createCheckerboard() {
+    	WritableImage tile = new WritableImage(2 * gridSquareSize, 2 * gridSquareSize);
+    	PixelWriter writer = tile.getPixelWriter();
+    	for (int x = 0; x < 2 * gridSquareSize; ++x) {
+    		for (int y = 0; y < 2 * gridSquareSize; ++y) {
+    			boolean filled = (x / gridSquareSize) == (y / gridSquareSize);
+    			writer.setColor(x, y, filled ? Color.LAVENDER : Color.TRANSPARENT);
     		}
     	}
+    	return new ImagePattern(tile, 0, 0, 2 * gridSquareSize, 2 * gridSquareSize, false);
+    }
+    
+    private void drawStaticLayer() {
+    	GraphicsContext gc = staticLayer.getGraphicsContext2D();
+    	gc.clearRect(0, 0, staticLayer.getWidth(), staticLayer.getHeight());
+    	if (isDetailed()) {
+    		drawBoard(gc);
+    	} else {
+    		drawOverview(gc);
+    	}
+    }
+    
+    // Draws the visible squares, obstacles and goal as shapes
+    private void drawBoard(GraphicsContext gc) {
+    	gc.save();
+    	applyCamera(gc);
+    	
+    	double minX = camera.getOffsetX();
+    	double minY = camera.getOffsetY();
+    	double maxX = camera.toWorldX(staticLayer.getWidth());
+    	double maxY = camera.toWorldY(staticLayer.getHeight());
     	
-    	Rectangle border = new Rectangle();
-    	border.setX(GRID_SQUARE_SIZE / 2);
-    	border.setY(GRID_SQUARE_SIZE / 2);
-    	border.setWidth(WINDOW_SIZE_WIDTH - GRID_SQUARE_SIZE);
-    	border.setHeight(WINDOW_SIZE_HEIGHT - GRID_SQUARE_SIZE);
-    	border.setStroke(Color.CRIMSON);
-    	border.setStrokeWidth(GRID_SQUARE_SIZE);
-    	border.setFill(Color.TRANSPARENT);
-    	background.add(border);
+    	gc.setFill(checkerboard);
+    	gc.fillRect(minX, minY, Math.min(maxX, windowSizeWidth) - minX, Math.min(maxY, windowSizeHeight) - minY);
     	
-    	return background;
+    	// Border straddling the outer edge, one square thick
+    	gc.setStroke(Color.CRIMSON);
+    	gc.setLineWidth(gridSquareSize);
+    	gc.strokeRect(gridSquareSize / 2, gridSquareSize / 2,
+    			windowSizeWidth - gridSquareSize, windowSizeHeight - gridSquareSize);
+    	
+    	// Obstacles reaching into the view start at most one obstacle size above or left of it
+    	int minBucketX = Math.max(0, ((int) (minX / gridSquareSize) - largestObstacle) / BUCKET_SIZE);
+    	int minBucketY = Math.max(0, ((int) (minY / gridSquareSize) - largestObstacle) / BUCKET_SIZE);
+    	int maxBucketX = Math.min(bucketsX - 1, (int) (maxX / gridSquareSize) / BUCKET_SIZE);
+    	int maxBucketY = Math.min(obstacleBuckets.size() / bucketsX - 1, (int) (maxY / gridSquareSize) / BUCKET_SIZE);
+    	
+    	gc.setFill(Color.MEDIUMBLUE);
+    	gc.setStroke(Color.BLACK);
+    	gc.setLineWidth(OBSTACLE_BORDER_WIDTH);
+    	for (int bucketY = minBucketY; bucketY <= maxBucketY; ++bucketY) {
+    		for (int bucketX = minBucketX; bucketX <= maxBucketX; ++bucketX) {
+    			for (Obstacle obstacle : obstacleBuckets.get(bucketY * bucketsX + bucketX)) {
+    				int obstacleActualSize = gridSquareSize * obstacle.getGridSize() - OBSTACLE_BORDER_WIDTH;
+    				int xPos = gridSquareSize * obstacle.getXGridPos() + (OBSTACLE_BORDER_WIDTH / 2);
+    				int yPos = gridSquareSize * obstacle.getYGridPos() + (OBSTACLE_BORDER_WIDTH / 2);
+    				gc.fillRect(xPos, yPos, obstacleActualSize, obstacleActualSize);
+    				gc.strokeRect(xPos, yPos, obstacleActualSize, obstacleActualSize);
+    			}
+    		}
+    	}
+    	
+    	target.draw(gc, drawnLayout.targetCenterX, drawnLayout.targetCenterY);
+    	gc.restore();
     }
     
-    // Dynamically creates the obstacles and adds them to the obstacle list
-    private void initializeObstacles() {
-    	int numObstacles = rand.nextInt(MAX_OBSTACLES - MIN_OBSTACLES + 1) + MIN_OBSTACLES;
+    // Draws the board one pixel at a time, each showing the share of blocked squares under it
+    private void drawOverview(GraphicsContext gc) {
+    	int width = (int) staticLayer.getWidth();
+    	int height = (int) staticLayer.getHeight();
+    	if (overview == null) {
+    		overview = new WritableImage(width, height);
+    		overviewPixels = new int[width * height];
+    	}
     	
-    	if(obstacles.size() != 0) {
-    		obstacles.clear();
+    	// The loop may already be laying out the next level, so only the published layout is read
+    	GridSnapshot snapshot = drawnLayout.snapshot;
+    	int gridWidth = snapshot.getWidth();
+    	int gridHeight = snapshot.getHeight();
+    	if (densityMipmap == null || densityMipmap.getVersion() != snapshot.getVersion()) {
+    		densityMipmap = new DensityMipmap(snapshot);
     	}
     	
-    	while(obstacles.size() < numObstacles) {
-    		int obstacleGridSize = rand.nextInt(MAX_OBSTACLE_SIZE - MIN_OBSTACLE_SIZE + 1) + MIN_OBSTACLE_SIZE;
-            int obstacleActualSize = GRID_SQUARE_SIZE * obstacleGridSize - OBSTACLE_BORDER_WIDTH;
-            int xGridPos = rand.nextInt(NUM_X_SQUARES - (obstacleGridSize) - 2);
-            int yGridPos = rand.nextInt(NUM_Y_SQUARES - (obstacleGridSize) - 2);
-            int xPos = GRID_SQUARE_SIZE * xGridPos + (OBSTACLE_BORDER_WIDTH / 2) + GRID_SQUARE_SIZE;
-            int yPos = GRID_SQUARE_SIZE * yGridPos + (OBSTACLE_BORDER_WIDTH / 2) + GRID_SQUARE_SIZE;
-
-            Rectangle newObstacle = new Rectangle(xPos, yPos, obstacleActualSize, obstacleActualSize);
-
-            boolean overlaps = false;
-            for(Rectangle currentObstacle : obstacles) {
-                if(newObstacle.getBoundsInParent().intersects(currentObstacle.getBoundsInParent())) {
-                    overlaps = true;
-                    break;
-                }
-            }
-
-            if(!overlaps) {
-            	newObstacle.setFill(Color.MEDIUMBLUE);
-            	newObstacle.setStroke(Color.BLACK);
-            	newObstacle.setStrokeWidth(OBSTACLE_BORDER_WIDTH);
-                obstacles.add(newObstacle);
-                this.getChildren().add(newObstacle);
-                
-                for(int i = 0; i < obstacleGridSize; ++i) {
-                	for(int j = 0; j < obstacleGridSize; ++j) {
-                		grid.setObstacle(xGridPos + 1 + i, yGridPos + 1 + j, true);
-                	}
-                }
-            }
-        }
+    	// Largest block no wider than one pixel
+    	double squaresPerPixel = 1 / (gridSquareSize * camera.getScale());
+    	int level = Math.min(densityMipmap.getMaxLevel(), 31 - Integer.numberOfLeadingZeros((int) squaresPerPixel));
+    	
+    	int open = toArgb(Color.LAVENDER.interpolate(Color.WHITE, 0.5));
+    	int blocked = toArgb(Color.MEDIUMBLUE);
+    	int border = toArgb(Color.CRIMSON);
+    	for (int py = 0; py < height; ++py) {
+    		int y = (int) (camera.toWorldY(py + 0.5) / gridSquareSize);
+    		for (int px = 0; px < width; ++px) {
+    			int x = (int) (camera.toWorldX(px + 0.5) / gridSquareSize);
+    			int argb;
+    			if (x >= gridWidth || y >= gridHeight) {
+    				argb = 0;
+    			} else if (x == 0 || y == 0 || x == gridWidth - 1 || y == gridHeight - 1) {
+    				argb = border;
+    			} else if (level < DensityMipmap.MIN_LEVEL) {
+    				argb = snapshot.isWalkable(x, y) ? open : blocked;
+    			} else {
+    				argb = blend(open, blocked, densityMipmap.density(level, x, y));
+    			}
+    			overviewPixels[py * width + px] = argb;
+    		}
+    	}
+    	
+    	overview.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), overviewPixels, 0, width);
+    	gc.drawImage(overview, 0, 0);
+    	
+    	gc.setFill(Color.GOLD);
+    	gc.setStroke(Color.BLACK);
+    	gc.setLineWidth(1);
+    	drawMarker(gc, drawnLayout.targetCenterX, drawnLayout.targetCenterY);
     }
     
-    // Updates the player's position
-    public boolean updatePlayerPosition() {
-        if (!keysPressed.isEmpty()) {
-        	for (KeyCode keyCode : keysPressed) {
-                switch (keyCode) {
-                    case UP:
-                    	player.moveUp();
-                    	break;
-                    case DOWN:
-                    	player.moveDown();
-                    	break;
-                    case LEFT:
-                    	player.moveLeft();
-                    	break;
-                    case RIGHT:
-                    	player.moveRight();
-                    	break;
-                }
-            }
-        	return true;
-        } else {
-            clearMomentum();
-            return false;
-        }
+    private static int toArgb(Color color) {
+    	return 0xff000000 | (int) Math.round(color.getRed() * 255) << 16
+    			| (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
     }
     
-    public boolean updateComputerPosition() {
-        if (path == null || path.isEmpty()) {
-            return false; // No path to follow
-        }
-
-        // Calculate the target position in pixels
-        double targetX = path.get(0).getXPos() * GRID_SQUARE_SIZE + player.getPlayerBorderWidth();
-        double targetY = path.get(0).getYPos() * GRID_SQUARE_SIZE + player.getPlayerBorderWidth();
-
-        // Current position including translations
-        double currentX = player.getX() + player.getTranslateX();
-        double currentY = player.getY() + player.getTranslateY();
-
-        // Calculate direction vector components
-        double dx = targetX - currentX;
-        double dy = targetY - currentY;
-
-        // Check if reached the current target node within a threshold
-        boolean hasReachedX = Math.abs(currentX - targetX) <= 1;
-        boolean hasReachedY = Math.abs(currentY - targetY) <= 1;
-        
-        // Apply movement and speed
-	    if (!hasReachedX && dx > 0) {
-	    	player.moveRight();
-	    } else if (!hasReachedX && dx < 0) {
-	    	player.moveLeft();
-	    }
+    // Mixes two opaque colors, with weight 0 giving the first and 255 the second
+    private static int blend(int first, int second, int weight) {
+    	int result = 0xff000000;
+    	for (int shift = 0; shift <= 16; shift += 8) {
+    		int a = (first >> shift) & 0xff;
+    		int b = (second >> shift) & 0xff;
+    		result |= (a + (b - a) * weight / 255) << shift;
+    	}
+    	return result;
+    }
+    
+    // Fixed-size square around a field point, so small things stay visible when zoomed out
+    private void drawMarker(GraphicsContext gc, double worldX, double worldY) {
+    	double x = camera.toScreenX(worldX) - MARKER_SIZE / 2;
+    	double y = camera.toScreenY(worldY) - MARKER_SIZE / 2;
+    	gc.fillRect(x, y, MARKER_SIZE, MARKER_SIZE);
+    	gc.strokeRect(x, y, MARKER_SIZE, MARKER_SIZE);
+    }
+    
+    private void applyCamera(GraphicsContext gc) {
+    	double scale = camera.getScale();
+    	gc.setTransform(scale, 0, 0, scale, -camera.getOffsetX() * scale, -camera.getOffsetY() * scale);
+    }
+    
+    // Redraws the whole dynamic layer, needed when the shown path changes
+    private void drawDynamicLayer(SimulationLoop.Frame frame) {
+    	GraphicsContext gc = dynamicLayer.getGraphicsContext2D();
+    	gc.clearRect(0, 0, dynamicLayer.getWidth(), dynamicLayer.getHeight());
+    	drawnPath = frame.path;
+    	drawMovingParts(gc, frame, 0, 0, dynamicLayer.getWidth(), dynamicLayer.getHeight());
+    }
+    
+    // Redraws only the area the agent covered before and after moving
+    private void updateAgent(SimulationLoop.Frame frame) {
+    	if (showPath && frame.path != drawnPath) {
+    		drawDynamicLayer(frame);
+    		return;
+    	}
     	
-    	if (!hasReachedY && dy < 0) {
-    		player.moveUp();
-    	} else if (!hasReachedY && dy > 0) {
-    		player.moveDown();
+    	double agentX = interpolatedX(frame);
+    	double agentY = interpolatedY(frame);
+    	double minX = Math.floor(Math.min(drawnMinX, screenMinX(agentX))) - DIRTY_MARGIN;
+    	double minY = Math.floor(Math.min(drawnMinY, screenMinY(agentY))) - DIRTY_MARGIN;
+    	double maxX = Math.ceil(Math.max(drawnMaxX, screenMaxX(agentX))) + DIRTY_MARGIN;
+    	double maxY = Math.ceil(Math.max(drawnMaxY, screenMaxY(agentY))) + DIRTY_MARGIN;
+    	
+    	GraphicsContext gc = dynamicLayer.getGraphicsContext2D();
+    	gc.save();
+    	gc.beginPath();
+    	gc.rect(minX, minY, maxX - minX, maxY - minY);
+    	gc.clip();
+    	gc.clearRect(minX, minY, maxX - minX, maxY - minY);
+    	drawMovingParts(gc, frame, minX, minY, maxX, maxY);
+    	gc.restore();
+    }
+    
+    // Share of the way from the frame's previous position to its current one, by the time
+    // since it was published. Drawing trails the simulation by up to one tick as a result.
+    private double progress(SimulationLoop.Frame frame) {
+    	double elapsed = System.nanoTime() - frame.publishedAt;
+    	return Math.max(0, Math.min(1, elapsed / loop.getTickIntervalNanos()));
+    }
+    
+    private double interpolatedX(SimulationLoop.Frame frame) {
+    	return frame.previousX + (frame.x - frame.previousX) * progress(frame);
+    }
+    
+    private double interpolatedY(SimulationLoop.Frame frame) {
+    	return frame.previousY + (frame.y - frame.previousY) * progress(frame);
+    }
+    
+    // Draws the path and agent over the given screen area
+    private void drawMovingParts(GraphicsContext gc, SimulationLoop.Frame frame,
+    		double minX, double minY, double maxX, double maxY) {
+    	double agentX = interpolatedX(frame);
+    	double agentY = interpolatedY(frame);
+    	if (isDetailed()) {
+    		gc.save();
+    		applyCamera(gc);
+    		if (showPath) {
+    			drawPath(gc, camera.toWorldX(minX), camera.toWorldY(minY), camera.toWorldX(maxX), camera.toWorldY(maxY));
+    		}
+    		player.draw(gc, agentX, agentY);
+    		gc.restore();
+    	} else {
+    		gc.setFill(Color.RED);
+    		gc.setStroke(Color.BLACK);
+    		gc.setLineWidth(1);
+    		drawMarker(gc, agentX + agentSize / 2, agentY + agentSize / 2);
     	}
-
-        if (hasReachedX && hasReachedY) {
-            //path.remove(0); // Move to the next node
-            player.setXGridPos(path.get(1).getXPos());
-            player.setYGridPos(path.get(1).getYPos());
-            updatePath();
-            
-            // Optional path visualization
-            //if (path.size() > 1) initializePathVisualization();
-        }
-
-        return true; // Continuing movement
+    	
+    	drawnMinX = screenMinX(agentX);
+    	drawnMinY = screenMinY(agentY);
+    	drawnMaxX = screenMaxX(agentX);
+    	drawnMaxY = screenMaxY(agentY);
     }
     
-    public void updatePath() {
-    	playerPos = new GridNode(player.getXGridPos(), player.getYGridPos(), true);
-    	path = grid.findPath(playerPos, target.getGoalNode());
+    // Draws the path's points that fall inside the given area of the field
+    private void drawPath(GraphicsContext gc, double minX, double minY, double maxX, double maxY) {
+    	double radius = simulation.getTargetRadius() / 3;
+    	gc.setFill(Color.RED);
+    	for (GridNode node : drawnPath) {
+    		double centerX = node.getXPos() * gridSquareSize + gridSquareSize / 2;
+    		double centerY = node.getYPos() * gridSquareSize + gridSquareSize / 2;
+    		if (centerX + radius < minX || centerX - radius > maxX || centerY + radius < minY || centerY - radius > maxY) {
+    			continue;
+    		}
+    		gc.fillOval(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+    	}
     }
     
-    public int checkPlayerCollision() {
-    	boolean overlaps = false;
-        for(Rectangle currentObstacle : obstacles) {
-        	if(player.getBoundsInParent().intersects(currentObstacle.getBoundsInParent())) {
-        		overlaps = true;
-        		break;
-        	}
-        }
-        
-        if(player.getX() + player.getTranslateX() >= WINDOW_SIZE_WIDTH - (2 * GRID_SQUARE_SIZE) || player.getX() + player.getTranslateX() <= GRID_SQUARE_SIZE) {
-        	overlaps = true;
-        } else if(player.getY() + player.getTranslateY() >= WINDOW_SIZE_HEIGHT - (2 * GRID_SQUARE_SIZE) || player.getY() + player.getTranslateY() <= GRID_SQUARE_SIZE) {
-        	overlaps = true;
-        }
-        
-        if(overlaps) {
-        	return LOSE;
-        } else if(player.getBoundsInParent().intersects(target.getBoundsInParent())) {
-        	return WIN;
-        }
-        
-        return 0;
+    // Screen bounds of the agent at the given top-left corner, either at full size or as a
+    // marker. The full-size bounds include the border straddling the body's edge.
+    private double screenMinX(double agentX) {
+    	return isDetailed() ? camera.toScreenX(agentX - agentBorderWidth / 2.0)
+    			: camera.toScreenX(agentX + agentSize / 2) - MARKER_SIZE;
     }
     
-    public void clearMomentum() {
-    	player.setVerticalMomentum(0);
-    	player.setHorizontalMomentum(0);
+    private double screenMinY(double agentY) {
+    	return isDetailed() ? camera.toScreenY(agentY - agentBorderWidth / 2.0)
+    			: camera.toScreenY(agentY + agentSize / 2) - MARKER_SIZE;
+    }
+    
+    private double screenMaxX(double agentX) {
+    	return isDetailed() ? camera.toScreenX(agentX + agentSize + agentBorderWidth / 2.0)
+    			: camera.toScreenX(agentX + agentSize / 2) + MARKER_SIZE;
+    }
+    
+    private double screenMaxY(double agentY) {
+    	return isDetailed() ? camera.toScreenY(agentY + agentSize + agentBorderWidth / 2.0)
+    			: camera.toScreenY(agentY + agentSize / 2) + MARKER_SIZE;
+    }
+    
+    // Moves the agent by the keys held down, applied on the loop thread before its next tick
+    public boolean updatePlayerPosition() {
+    	if (keysPressed.isEmpty()) {
+    		loop.execute(simulation::clearMomentum);
+    		return false;
+    	}
+    	
+    	List<KeyCode> keys = new ArrayList<>(keysPressed);
+    	loop.execute(() -> {
+    		Agent agent = simulation.getAgent();
+    		for (KeyCode keyCode : keys) {
+    			switch (keyCode) {
+    				case UP:
+    					agent.moveUp();
+    					break;
+    				case DOWN:
+    					agent.moveDown();
+    					break;
+    				case LEFT:
+    					agent.moveLeft();
+    					break;
+    				case RIGHT:
+    					agent.moveRight();
+    					break;
+    				default:
+    					break;
+    			}
+    		}
+    	});
+    	return true;
+    }
+    
+    public SimulationLoop getLoop() {
+    	return loop;
     }
     
     public void addKey(KeyEvent e) {
@@ -275,18 +493,9 @@ public class Field extends Pane {
     	keysPressed.remove(e.getCode());
     }
     
-    public void initializePathVisualization() {
-    	// Remove previous path visualization
-    	this.getChildren().removeIf(node -> "pathNode".equals(node.getUserData()));
-    	
-    	// Visualization
-		 for (GridNode node : path) {
-			 Circle point = new Circle();
-			 point.setRadius(TARGET_RADIUS / 3); point.setFill(Color.RED);
-			 point.setCenterX(node.getXPos() * GRID_SQUARE_SIZE + GRID_SQUARE_SIZE / 2);
-			 point.setCenterY(node.getYPos() * GRID_SQUARE_SIZE + GRID_SQUARE_SIZE / 2);
-			 point.setUserData("pathNode");
-			 this.getChildren().add(point);
-		 }
+    // Optional path visualization, drawn under the agent
+    public void setShowPath(boolean showPath) {
+    	this.showPath = showPath;
+    	redraw();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package org.openjfx.PathfindingSimulation;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+// Checks whether the custom Flight Recorder events are being recorded, so callers only
+// create an event when it will be kept. Touching an event class starts up the recorder's
+// machinery, which takes a few hundred milliseconds, so nothing here does that until a
+// recording has been started somewhere in the process.
+final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    static boolean isSearchEnabled() {
+        return FlightRecorder.isInitialized() && Types.SEARCH.isEnabled();
+    }
+
+    static boolean isReplanEnabled() {
+        return FlightRecorder.isInitialized() && Types.REPLAN.isEnabled();
+    }
+
+    static boolean isLevelResetEnabled() {
+        return FlightRecorder.isInitialized() && Types.LEVEL_RESET.isEnabled();
+    }
+
+    static boolean isTickEnabled() {
+        return FlightRecorder.isInitialized() && Types.TICK.isEnabled();
+    }
+
+    static boolean isRenderFrameEnabled() {
+        return FlightRecorder.isInitialized() && Types.RENDER_FRAME.isEnabled();
+    }
+
+    // Loaded on first use, once the recorder is already running
+    private static final class Types {
+        static final EventType SEARCH = EventType.getEventType(SearchEvent.class);
+        static final EventType REPLAN = EventType.getEventType(ReplanEvent.class);
+        static final EventType LEVEL_RESET = EventType.getEventType(LevelResetEvent.class);
+        static final EventType TICK = EventType.getEventType(TickEvent.class);
+        static final EventType RENDER_FRAME = EventType.getEventType(RenderFrameEvent.class);
+    }
+}
@@ -0,0 +1,323 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Reverse Dijkstra map for one goal: the cost from every cell to the goal, and the
+// direction of the next step along a cheapest path. Any number of agents heading for
+// the goal pick their next cell with a lookup instead of running a search each.
+// Shared by every thread using the grid; get one from Grid.getFlowField.
+//
+// Edits are repaired in working arrays private to the listener. Closing a cell clears
+// the cells whose steps led through it, or through a corner it now blocks, and refills
+// them from the cells around them. Opening a cell lets the cells around it offer cheaper
+// steps, and the savings spread outward. Either way the search is limited to the cells
+// whose costs actually change. Lookups read an immutable copy of the working arrays. The
+// copy is only made by the first lookup after a batch of edits, so placing many cells
+// costs one copy rather than one per cell, and lookups otherwise never take a lock.
+// Clearing the grid likewise waits for the next lookup to rebuild the field.
+public class FlowField implements GridListener {
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final byte NONE = -1;
+
+    // Costs and directions as of one lookup, never modified once published
+    private static final class State {
+        final int[] costs;
+        final byte[] directions;
+
+        State(int[] costs, byte[] directions) {
+            this.costs = costs;
+            this.directions = directions;
+        }
+    }
+
+    private final Grid grid;
+    private final int width;
+    private final int height;
+    private final int goalX;
+    private final int goalY;
+
+    private volatile State state;
+
+    // Set when the working arrays have changed since the state was published
+    private volatile boolean dirty;
+
+    // Set once the grid no longer keeps this field up to date
+    private volatile boolean stale;
+
+    // Working copy and repair state, guarded by this object's lock
+    private final int[] costs;
+    private final byte[] directions;
+    private final IndexedMinHeap openSet;
+    private boolean modified;
+    private boolean needsRebuild;
+
+    // Cells cleared by the repair in progress
+    private int[] cleared = new int[16];
+    private int clearedCount;
+
+    FlowField(Grid grid, int goalX, int goalY) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.goalX = goalX;
+        this.goalY = goalY;
+
+        int cellCount = width * height;
+        this.costs = new int[cellCount];
+        this.directions = new byte[cellCount];
+        this.openSet = new IndexedMinHeap(cellCount);
+
+        // Edits made while building are replayed by the listener and repair nothing
+        grid.addListener(this);
+        synchronized (this) {
+            buildAll();
+            state = new State(costs.clone(), directions.clone());
+        }
+    }
+
+    // Cost of a cheapest path from the cell to the goal, or UNREACHABLE
+    public int getCost(int x, int y) {
+        return inBounds(x, y) ? current().costs[y * width + x] : UNREACHABLE;
+    }
+
+    // Index into AStarSearch.DIR_X/DIR_Y of the next step toward the goal, or -1 at the
+    // goal itself and wherever the goal cannot be reached
+    public int getDirection(int x, int y) {
+        return inBounds(x, y) ? current().directions[y * width + x] : NONE;
+    }
+
+    // Follows the field from the cell to the goal, or an empty list if it cannot be reached
+    public List<GridNode> pathFrom(int x, int y) {
+        State current = current();
+        List<GridNode> path = new ArrayList<>();
+        if (!inBounds(x, y) || current.costs[y * width + x] == UNREACHABLE) {
+            return path;
+        }
+
+        byte[] directions = current.directions;
+        int cell = y * width + x;
+        path.add(grid.getNode(x, y));
+        while (directions[cell] != NONE) {
+            x += AStarSearch.DIR_X[directions[cell]];
+            y += AStarSearch.DIR_Y[directions[cell]];
+            cell = y * width + x;
+            path.add(grid.getNode(x, y));
+        }
+        return path;
+    }
+
+    public int getGoalX() {
+        return goalX;
+    }
+
+    public int getGoalY() {
+        return goalY;
+    }
+
+    // True once the grid has dropped this field from its cache. It then stops following
+    // edits, and a fresh one should be fetched from Grid.getFlowField.
+    public boolean isStale() {
+        return stale;
+    }
+
+    // Stops following edits, called by the grid when it drops the field
+    void detach() {
+        grid.removeListener(this);
+        stale = true;
+    }
+
+    @Override
+    public synchronized void cellChanged(int x, int y) {
+        if (needsRebuild) return;
+
+        clearedCount = 0;
+        modified = false;
+
+        // Steps that no longer exist: out of the changed cell, into it, or past its corners
+        for (int dy = -1; dy <= 1; ++dy) {
+            for (int dx = -1; dx <= 1; ++dx) {
+                int cellX = x + dx;
+                int cellY = y + dy;
+                if (!inBounds(cellX, cellY)) continue;
+
+                int cell = cellY * width + cellX;
+                if (costs[cell] != UNREACHABLE && !hasValidStep(cellX, cellY)) {
+                    clearTree(cell);
+                }
+            }
+        }
+
+        // Refill the cleared cells, and let the cells around the change try the steps it opened
+        for (int i = 0; i < clearedCount; ++i) {
+            reseed(cleared[i]);
+        }
+        for (int dy = -1; dy <= 1; ++dy) {
+            for (int dx = -1; dx <= 1; ++dx) {
+                if (inBounds(x + dx, y + dy)) {
+                    reseed((y + dy) * width + x + dx);
+                }
+            }
+        }
+        propagate();
+
+        if (cleared.length > 4096) {
+            cleared = new int[16];
+        }
+        if (modified) {
+            dirty = true;
+        }
+    }
+
+    @Override
+    public synchronized void gridCleared() {
+        needsRebuild = true;
+        dirty = true;
+    }
+
+    // State brought up to date with the edits made since it was last published
+    private State current() {
+        if (dirty) {
+            synchronized (this) {
+                if (needsRebuild) {
+                    buildAll();
+                    needsRebuild = false;
+                }
+                if (dirty) {
+                    state = new State(costs.clone(), directions.clone());
+                    dirty = false;
+                }
+            }
+        }
+        return state;
+    }
+
+    private void buildAll() {
+        Arrays.fill(costs, UNREACHABLE);
+        Arrays.fill(directions, NONE);
+        openSet.clear();
+
+        if (grid.isWalkable(goalX, goalY)) {
+            int goal = goalY * width + goalX;
+            costs[goal] = 0;
+            openSet.insertOrUpdate(goal, 0, 0);
+        }
+        propagate();
+    }
+
+    // True if the cell is the open goal or its step still leads to an open cell without cutting a corner
+    private boolean hasValidStep(int x, int y) {
+        if (!grid.isWalkable(x, y)) return false;
+        if (x == goalX && y == goalY) return true;
+
+        int dir = directions[y * width + x];
+        return dir != NONE && canStep(x, y, dir);
+    }
+
+    // Clears the cell and every cell whose steps lead through it
+    private void clearTree(int root) {
+        int start = clearedCount;
+        clear(root);
+        for (int i = start; i < clearedCount; ++i) {
+            int cell = cleared[i];
+            int cellX = cell % width;
+            int cellY = cell / width;
+            for (int dir = 0; dir < 8; ++dir) {
+                int childX = cellX + AStarSearch.DIR_X[dir];
+                int childY = cellY + AStarSearch.DIR_Y[dir];
+                if (!inBounds(childX, childY)) continue;
+
+                int child = childY * width + childX;
+                if (directions[child] == opposite(dir)) {
+                    clear(child);
+                }
+            }
+        }
+    }
+
+    private void clear(int cell) {
+        modified = true;
+        costs[cell] = UNREACHABLE;
+        directions[cell] = NONE;
+        openSet.remove(cell);
+        if (clearedCount == cleared.length) {
+            cleared = Arrays.copyOf(cleared, clearedCount * 2);
+        }
+        cleared[clearedCount++] = cell;
+    }
+
+    // Lowers the cell to its cheapest step onto a neighbor, queueing it if that helped
+    private void reseed(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        if (!grid.isWalkable(x, y)) return;
+
+        if (x == goalX && y == goalY) {
+            if (costs[cell] != 0) {
+                modified = true;
+                costs[cell] = 0;
+                directions[cell] = NONE;
+                openSet.insertOrUpdate(cell, 0, 0);
+            }
+            return;
+        }
+
+        for (int dir = 0; dir < 8; ++dir) {
+            if (!canStep(x, y, dir)) continue;
+
+            int neighbor = (y + AStarSearch.DIR_Y[dir]) * width + x + AStarSearch.DIR_X[dir];
+            if (costs[neighbor] == UNREACHABLE) continue;
+
+            int cost = costs[neighbor] + stepCost(dir);
+            if (cost < costs[cell]) {
+                modified = true;
+                costs[cell] = cost;
+                directions[cell] = (byte) dir;
+                openSet.insertOrUpdate(cell, cost, 0);
+            }
+        }
+    }
+
+    // Dijkstra outward from the queued cells, only ever lowering costs
+    private void propagate() {
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            int currentX = current % width;
+            int currentY = current / width;
+            for (int dir = 0; dir < 8; ++dir) {
+                if (!canStep(currentX, currentY, dir)) continue;
+
+                int neighbor = (currentY + AStarSearch.DIR_Y[dir]) * width + currentX + AStarSearch.DIR_X[dir];
+                int cost = costs[current] + stepCost(dir);
+                if (cost < costs[neighbor]) {
+                    modified = true;
+                    costs[neighbor] = cost;
+                    directions[neighbor] = (byte) opposite(dir);
+                    openSet.insertOrUpdate(neighbor, cost, 0);
+                }
+            }
+        }
+    }
+
+    // Steps are symmetric, so this also tells whether the neighbor can step back
+    private boolean canStep(int x, int y, int dir) {
+        int dx = AStarSearch.DIR_X[dir];
+        int dy = AStarSearch.DIR_Y[dir];
+        if (!grid.isWalkable(x + dx, y + dy)) return false;
+        return dir < 4 || (grid.isWalkable(x + dx, y) && grid.isWalkable(x, y + dy));
+    }
+
+    private static int stepCost(int dir) {
+        return dir < 4 ? Grid.STRAIGHT_COST : Grid.DIAGONAL_COST;
+    }
+
+    // Direction pointing back the other way
+    private static int opposite(int dir) {
+        return dir < 4 ? (dir + 2) & 3 : 4 + ((dir - 2) & 3);
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+}
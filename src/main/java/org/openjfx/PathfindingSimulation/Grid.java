@@ -1,134 +1,300 @@
 package org.openjfx.PathfindingSimulation;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+// Any number of threads may call findPath at once. Each thread searches with its own
+// pooled engines against an immutable snapshot of the walkability, and edits made while
+// a search runs are picked up by the next search.
 public class Grid {
+    // Movement costs between neighboring cells, in fixed point with one decimal place, so
+    // costs add up exactly and compare as ints. Any path cost fits an int many times over.
+    static final int STRAIGHT_COST = 10;
+    static final int DIAGONAL_COST = 14;
+
     private final int width;
     private final int height;
-    private final GridNode[][] nodes;
+
+    // One bit per cell, guarded by this grid's lock. Nodes are only created for results.
+    private final WalkabilityBitmap walkable;
+
+    // Incremented on every walkability change so derived data knows when to rebuild
+    private volatile long version = 0;
+    private volatile GridSnapshot snapshot;
+    private final List<GridListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile SearchMode searchMode = SearchMode.ASTAR;
+    private volatile Heuristic heuristic = Heuristic.OCTILE;
+
+    // Search state is per thread, one engine per mode
+    private final ThreadLocal<ThreadSearches> searches = ThreadLocal.withInitial(ThreadSearches::new);
+
+    // Derived data shared by every thread's engines, built on first use
+    private volatile JumpDistanceTable jumpDistances;
+    private ClusterMap clusterMap;
+    private volatile ConnectedComponents components;
+
+    // Component labels take an int per cell, so grids with more cells than this only keep
+    // them when asked to with setRejectUnreachable
+    static final int COMPONENT_CELL_LIMIT = 1 << 22;
+    private volatile boolean rejectUnreachable;
+
+    // Flow fields for the goals asked for most recently, oldest dropped first
+    private static final int MAX_FLOW_FIELDS = 4;
+    private final Map<Integer, FlowField> flowFields = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final class ThreadSearches {
+        final PathSearch[] engines = new PathSearch[SearchMode.values().length];
+
+        // Set when the last query was turned down without searching
+        boolean rejected;
+    }
 
     public Grid(int width, int height) {
         this.width = width;
         this.height = height;
-        this.nodes = new GridNode[width][height];
-        initializeNodes();
+        this.walkable = new WalkabilityBitmap(width, height);
+        this.rejectUnreachable = (long) width * height <= COMPONENT_CELL_LIMIT;
+
+        // Assumes all nodes are walkable initially
+        walkable.fill(true);
     }
 
-    private void initializeNodes() {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-            	// Assumes all nodes are walkable initially
-                nodes[x][y] = new GridNode(x, y, true);
-            }
-        }
+    // Wraps existing walkability, such as a map loaded by MapFile
+    Grid(WalkabilityBitmap walkable) {
+        this.width = walkable.getWidth();
+        this.height = walkable.getHeight();
+        this.walkable = walkable;
+        this.rejectUnreachable = (long) width * height <= COMPONENT_CELL_LIMIT;
     }
 
     public void setObstacle(int x, int y, boolean isObstacle) {
-        if (x >= 0 && x < width && y >= 0 && y < height) {
-            nodes[x][y].setWalkable(!isObstacle);
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+
+        synchronized (this) {
+            if (walkable.get(x, y) != isObstacle) return;
+
+            walkable.set(x, y, !isObstacle);
+            ++version;
+        }
+
+        // Listeners run outside the lock so they may take snapshots themselves
+        for (GridListener listener : listeners) {
+            listener.cellChanged(x, y);
         }
     }
+    
+    // Immutable view of the current walkability, copied only after the grid has changed
+    public GridSnapshot snapshot() {
+        GridSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
 
+        synchronized (this) {
+            if (snapshot == null || snapshot.getVersion() != version) {
+                snapshot = new GridSnapshot(version, walkable.copy());
+            }
+            return snapshot;
+        }
+    }
+
+    // True if a straight line between the two cell centers touches no blocked cell
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1) {
+        return LineOfSight.isClear(snapshot(), x0, y0, x1, y1, 0);
+    }
+
+    // Drops the nodes of a path that a straight line can skip, keeping its ends. The
+    // clearance, in cells, is the half-width a mover needs either side of each segment.
+    public List<GridNode> smoothPath(List<GridNode> path, double clearance) {
+        return LineOfSight.smooth(snapshot(), path, clearance);
+    }
+
+    // Creates a node describing the cell as it is now, or null outside the grid
     public GridNode getNode(int x, int y) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
-            return nodes[x][y];
+            return new GridNode(x, y, isWalkable(x, y));
         }
         return null;
     }
 
+    // Queries between cells in different components fail at once while unreachable queries
+    // are rejected. An edit made by another thread may not be seen yet, just as a search may
+    // run on a slightly older snapshot.
     public List<GridNode> findPath(GridNode startNode, GridNode goalNode) {
-        PriorityQueue<GridNode> openSet = new PriorityQueue<>(Comparator.comparingDouble(GridNode::getFCost));
-        Set<GridNode> closedSet = new HashSet<>();
-        startNode.setGCost(0);
-        startNode.setHCost(calculateDistance(startNode, goalNode));
-        startNode.setFCost(startNode.getGCost() + startNode.getHCost());
-        openSet.add(startNode);
-
-        while (!openSet.isEmpty()) {
-        	// Node in openSet having the lowest fCost
-            GridNode current = openSet.poll();
-
-            if (current.equals(goalNode)) {
-                return reconstructPath(goalNode);
+        int startX = startNode.getXPos();
+        int startY = startNode.getYPos();
+        int goalX = goalNode.getXPos();
+        int goalY = goalNode.getYPos();
+
+        SearchEvent event = beginSearchEvent();
+        long startTime = System.nanoTime();
+        ThreadSearches threadSearches = searches.get();
+        threadSearches.rejected = areSeparated(startX, startY, goalX, goalY);
+        if (threadSearches.rejected) {
+            PathfindingMetrics.get().recordSearch(System.nanoTime() - startTime, 0, 0);
+            commitSearchEvent(event, searchMode.name(), startX, startY, goalX, goalY, 0, 0, true);
+            return new ArrayList<>();
+        }
+
+        PathSearch search = getSearch(threadSearches);
+        List<GridNode> path = search.findPath(startX, startY, goalX, goalY);
+        PathfindingMetrics.get().recordSearch(System.nanoTime() - startTime, search.getNodesExpanded(),
+                search.getPeakOpenSetSize());
+        commitSearchEvent(event, searchMode.name(), startX, startY, goalX, goalY, path.size(),
+                search.getNodesExpanded(), false);
+        return path;
+    }
+
+    // A started event if a recording wants searches, otherwise null
+    static SearchEvent beginSearchEvent() {
+        if (!FlightEvents.isSearchEnabled()) return null;
+
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    // Fills in and commits an event from beginSearchEvent, if there is one
+    static void commitSearchEvent(SearchEvent event, String mode, int startX, int startY, int goalX, int goalY,
+            int pathLength, int nodesExpanded, boolean rejected) {
+        if (event == null) return;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = mode;
+            event.startX = startX;
+            event.startY = startY;
+            event.goalX = goalX;
+            event.goalY = goalY;
+            event.pathLength = pathLength;
+            event.nodesExpanded = nodesExpanded;
+            event.rejected = rejected;
+            event.commit();
+        }
+    }
+    
+    // Engines are created on first use since most keep per-cell arrays
+    private PathSearch getSearch(ThreadSearches threadSearches) {
+        PathSearch[] engines = threadSearches.engines;
+        PathSearch search = engines[searchMode.ordinal()];
+        if (search == null) {
+            switch (searchMode) {
+                case JPS:
+                    search = new JumpPointSearch(this);
+                    break;
+                case JPS_PLUS:
+                    search = new JumpPointPlusSearch(this);
+                    break;
+                case HIERARCHICAL:
+                    search = new HierarchicalSearch(this);
+                    break;
+                case THETA_STAR:
+                    search = new ThetaStarSearch(this);
+                    break;
+                default:
+                    search = new AStarSearch(this);
+                    break;
             }
+            engines[searchMode.ordinal()] = search;
+        }
+        return search;
+    }
+    
+    // JPS+ jump distances for the given snapshot, shared between threads
+    JumpDistanceTable getJumpDistances(GridSnapshot snapshot) {
+        JumpDistanceTable table = jumpDistances;
+        if (table != null && table.getVersion() == snapshot.getVersion()) {
+            return table;
+        }
 
-            closedSet.add(current);
+        synchronized (this) {
+            if (jumpDistances == null || jumpDistances.getVersion() != snapshot.getVersion()) {
+                jumpDistances = new JumpDistanceTable(snapshot);
+            }
+            return jumpDistances;
+        }
+    }
+    
+    // True if both cells are open and known to be in different components. Always false
+    // while unreachable queries are not being rejected.
+    boolean areSeparated(int x1, int y1, int x2, int y2) {
+        if (!rejectUnreachable) return false;
 
-            // Process each neighbor of the current node
-            for (GridNode neighbor : getNeighbors(current)) {
-                if (!neighbor.isWalkable() || closedSet.contains(neighbor)) continue;
+        ConnectedComponents current = getComponents();
+        return current != null && current.areSeparated(x1, y1, x2, y2);
+    }
 
-                double tentativeGCost = current.getGCost() + calculateDistance(current, neighbor);
-                if (tentativeGCost < neighbor.getGCost() || !openSet.contains(neighbor)) {
-                    neighbor.setGCost(tentativeGCost);
-                    neighbor.setHCost(calculateDistance(neighbor, goalNode));
-                    neighbor.setParent(current);
-                    neighbor.setFCost(neighbor.getGCost() + neighbor.getHCost());
+    // Component labels for rejecting unreachable queries, shared between threads, or null
+    // if they were turned off in the meantime
+    ConnectedComponents getComponents() {
+        ConnectedComponents current = components;
+        if (current != null) {
+            return current;
+        }
 
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
-                    }
-                }
+        synchronized (this) {
+            if (components == null && rejectUnreachable) {
+                components = new ConnectedComponents(this);
             }
+            return components;
         }
+    }
 
-        // No path found
-        return new ArrayList<>();
+    public boolean isRejectingUnreachable() {
+        return rejectUnreachable;
+    }
+
+    // On by default for grids up to COMPONENT_CELL_LIMIT cells. Turning it off frees the labels.
+    public void setRejectUnreachable(boolean rejectUnreachable) {
+        synchronized (this) {
+            this.rejectUnreachable = rejectUnreachable;
+            if (!rejectUnreachable && components != null) {
+                removeListener(components);
+                components = null;
+            }
+        }
     }
     
-    private List<GridNode> getNeighbors(GridNode current) {
-        List<GridNode> neighborList = new ArrayList<>();
-        for (int y = -1; y <= 1; ++y) {
-            for (int x = -1; x <= 1; ++x) {
-                int newX = current.getXPos() + x;
-                int newY = current.getYPos() + y;
-
-                // Skip the current node
-                if (x == 0 && y == 0) continue;
-
-                // Check grid bounds
-                if (newX >= 0 && newX < width && newY >= 0 && newY < height) {
-                	// Check diagonals for adjacency
-                	if (Math.abs(x) + Math.abs(y) == 2) {
-                    	GridNode xAdjacent = nodes[current.getXPos()][current.getYPos() + y];
-                    	GridNode yAdjacent = nodes[current.getXPos() + x][current.getYPos()];
-                    	if (!xAdjacent.isWalkable() || !yAdjacent.isWalkable()) {
-                    		continue;
-                    	}
-                    }
-                    neighborList.add(nodes[newX][newY]);
+    // Costs and steps toward the goal from every cell, shared by everyone heading there.
+    // The field is kept up to date as the grid is edited. Only the goals asked for most
+    // recently are kept, and a dropped field reports isStale so holders can fetch it again.
+    public FlowField getFlowField(GridNode goalNode) {
+        int goal = goalNode.getYPos() * width + goalNode.getXPos();
+        synchronized (flowFields) {
+            FlowField field = flowFields.get(goal);
+            if (field == null) {
+                if (flowFields.size() == MAX_FLOW_FIELDS) {
+                    Map.Entry<Integer, FlowField> eldest = flowFields.entrySet().iterator().next();
+                    eldest.getValue().detach();
+                    flowFields.remove(eldest.getKey());
                 }
+                field = new FlowField(this, goalNode.getXPos(), goalNode.getYPos());
+                flowFields.put(goal, field);
             }
+            return field;
         }
-
-        return neighborList;
     }
     
-    // True distance
-//    private double calculateDistance(GridNode start, GridNode destination) {
-//    	double length = destination.getXPos() - start.getXPos();
-//    	double height = destination.getYPos() - start.getYPos();
-//    	return Math.hypot(length, height);
-//    }
+    // Cluster abstraction for HPA*, shared between threads
+    synchronized ClusterMap getClusterMap() {
+        if (clusterMap == null) {
+            clusterMap = new ClusterMap(this);
+        }
+        return clusterMap;
+    }
     
-    // Precalculated distance
-    private double calculateDistance(GridNode start, GridNode destination) {
-    	if (Math.abs(start.getXPos() - destination.getXPos()) == Math.abs(start.getYPos() - destination.getYPos())) return 1.4;
-    	else return 1.0;
+    // Current walkability as seen by the thread editing the grid
+    boolean isWalkable(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && walkable.get(x, y);
     }
     
-    private List<GridNode> reconstructPath(GridNode goalNode) {
-        List<GridNode> path = new ArrayList<>();
-        for (GridNode node = goalNode; node != null; node = node.getParent()) {
-            path.add(0, node);
-        }
-
-        return path;
+    // Cost of a straight or diagonal run of steps between two cells
+    static int segmentCost(int startX, int startY, int destinationX, int destinationY) {
+        return Heuristic.OCTILE.estimate(Math.abs(destinationX - startX), Math.abs(destinationY - startY));
     }
 
     public int getWidth() {
@@ -139,7 +305,50 @@ public class Grid {
         return height;
     }
     
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+    
+    // HIERARCHICAL trades path length for speed, so its paths may be longer than the shortest
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+    
+    public Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    // Estimate used by the A* based searches from their next query on
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+    
+    // Number of nodes expanded by this thread's most recent findPath call
+    public int getNodesExpanded() {
+        ThreadSearches threadSearches = searches.get();
+        return threadSearches.rejected ? 0 : getSearch(threadSearches).getNodesExpanded();
+    }
+    
+    // Resets every cell to walkable
     public void clear() {
-    	initializeNodes();
+        synchronized (this) {
+            walkable.fill(true);
+            ++version;
+        }
+        for (GridListener listener : listeners) {
+            listener.gridCleared();
+        }
+    }
+    
+    public void addListener(GridListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(GridListener listener) {
+        listeners.remove(listener);
     }
 }
\ No newline at end of file
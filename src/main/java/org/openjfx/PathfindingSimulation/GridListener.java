@@ -0,0 +1,10 @@
+package org.openjfx.PathfindingSimulation;
+
+// Notified by Grid when walkability changes, so derived search data can be repaired
+public interface GridListener {
+    // A single cell switched between walkable and obstacle
+    void cellChanged(int x, int y);
+
+    // Every cell was reset to walkable
+    void gridCleared();
+}
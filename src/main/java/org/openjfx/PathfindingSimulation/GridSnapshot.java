@@ -0,0 +1,43 @@
+package org.openjfx.PathfindingSimulation;
+
+// Immutable copy of a grid's walkability at one version.
+// Searches read from a snapshot so they can run on any thread while the grid is edited.
+public final class GridSnapshot {
+    private final int width;
+    private final int height;
+    private final long version;
+    private final WalkabilityBitmap walkable;
+
+    GridSnapshot(long version, WalkabilityBitmap walkable) {
+        this.width = walkable.getWidth();
+        this.height = walkable.getHeight();
+        this.version = version;
+        this.walkable = walkable;
+    }
+
+    // Cells one step outside the grid read as blocked, so neighbors need no bounds check
+    public boolean isWalkable(int x, int y) {
+        return walkable.get(x, y);
+    }
+
+    // Walkable directions from (x, y) as bits in AStarSearch.DIR_X/DIR_Y order
+    public int neighborMask(int x, int y) {
+        return walkable.neighborMask(x, y);
+    }
+
+    WalkabilityBitmap getWalkable() {
+        return walkable;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,84 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Runs simulation episodes without a display and reports how fast they step.
+// Usage: HeadlessRunner [episodes] [seed] [maxStepsPerEpisode] [--gridWidth=1000 ...]
+// Named arguments configure the map the same way as for the JavaFX application.
+public class HeadlessRunner {
+    private static final int DEFAULT_EPISODES = 1000;
+    private static final long DEFAULT_SEED = 1;
+    private static final int DEFAULT_MAX_STEPS = 20000;
+
+    public static void main(String[] args) {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> named = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (arg.startsWith("--") && split != -1) {
+                named.put(arg.substring(2, split), arg.substring(split + 1));
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        int episodes = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : DEFAULT_EPISODES;
+        long seed = positional.size() > 1 ? Long.parseLong(positional.get(1)) : DEFAULT_SEED;
+        int maxSteps = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : DEFAULT_MAX_STEPS;
+
+        MapConfig config;
+        try {
+            config = MapConfig.fromArguments(named);
+        } catch (IllegalArgumentException e) {
+            System.out.println("ERROR: " + e.getMessage());
+            return;
+        }
+
+        // Watchable from JConsole during long runs; registering takes a while, so it is not timed
+        PathfindingMetrics.register();
+
+        long setupStart = System.nanoTime();
+        Simulation simulation = new Simulation(config, new Random(seed));
+        int wins = 0;
+        int losses = 0;
+        int timeouts = 0;
+        long totalSteps = 0;
+
+        System.out.printf("%dx%d grid set up in %.1f ms%n", config.getGridWidth(), config.getGridHeight(),
+                (System.nanoTime() - setupStart) / 1e6);
+
+        long startTime = System.nanoTime();
+        for (int episode = 0; episode < episodes; ++episode) {
+            simulation.reset();
+
+            int result = Simulation.NONE;
+            int steps = 0;
+            while (result == Simulation.NONE && steps < maxSteps) {
+                result = simulation.step();
+                ++steps;
+            }
+            totalSteps += steps;
+
+            if (result == Simulation.WIN) {
+                ++wins;
+            } else if (result == Simulation.LOSE) {
+                ++losses;
+            } else {
+                ++timeouts;
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("%d episodes: %d wins, %d losses, %d timeouts%n", episodes, wins, losses, timeouts);
+        System.out.printf("%d steps in %.2f s (%.0f steps/s)%n", totalSteps, seconds, totalSteps / seconds);
+
+        PathfindingMetrics metrics = PathfindingMetrics.get();
+        System.out.printf("%d searches (p50 %.1f us, p99 %.1f us), %d replans, step p99 %.1f us%n",
+                metrics.getSearchCount(), metrics.getSearchLatencyP50(), metrics.getSearchLatencyP99(),
+                metrics.getReplanCount(), metrics.getStepTimeP99());
+    }
+}
@@ -0,0 +1,31 @@
+package org.openjfx.PathfindingSimulation;
+
+// Estimated cost between two cells, in the same fixed-point units as Grid.STRAIGHT_COST
+// and Grid.DIAGONAL_COST. An estimate that never exceeds the true cost keeps A* optimal;
+// the closer it gets to the true cost, the fewer nodes a search expands.
+public interface Heuristic {
+    // Distances along each axis, never negative
+    int estimate(int dx, int dy);
+
+    // Estimate between two cells, for heuristics that depend on where the cells are
+    default int estimate(int x, int y, int goalX, int goalY) {
+        return estimate(Math.abs(x - goalX), Math.abs(y - goalY));
+    }
+
+    // The heuristic to use for a search over the snapshot, for heuristics built from the map
+    default Heuristic forSnapshot(GridSnapshot snapshot) {
+        return this;
+    }
+
+    // No estimate at all, so A* searches like Dijkstra
+    Heuristic ZERO = (dx, dy) -> 0;
+
+    // Exact cost on an empty grid with the 8-neighbor moves, and the default
+    Heuristic OCTILE = (dx, dy) -> Grid.DIAGONAL_COST * Math.min(dx, dy) + Grid.STRAIGHT_COST * Math.abs(dx - dy);
+
+    // Scaled so a diagonal never counts for more than DIAGONAL_COST, which keeps it admissible
+    Heuristic EUCLIDEAN = (dx, dy) -> (int) (Math.hypot(dx, dy) * Grid.DIAGONAL_COST / Math.sqrt(2));
+
+    // Counts a diagonal as two straight steps, so it overestimates: faster, but paths may be longer
+    Heuristic MANHATTAN = (dx, dy) -> Grid.STRAIGHT_COST * (dx + dy);
+}
@@ -0,0 +1,244 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjfx.PathfindingSimulation.ClusterMap.Cluster;
+
+// Hierarchical pathfinding (HPA*). The grid is split into square clusters, and
+// each open stretch of cluster border gets one or two entrance cells. Costs between
+// the entrances of a cluster are precomputed, so a long query only searches the small
+// entrance graph and then fills in each leg with a search bounded to one cluster.
+// Paths pass through entrance cells, so they are near-optimal rather than shortest.
+// The clusters live in the grid's shared ClusterMap, and this class only holds the
+// per-thread search state, so each thread uses its own instance. That state is sized to
+// the entrance graph and to one cluster, never to the whole grid.
+public class HierarchicalSearch implements PathSearch {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final Grid grid;
+    private final int width;
+
+    // Clusters and grid state for the query in progress
+    private ClusterMap.View view;
+    private GridSnapshot snapshot;
+
+    // Searches restricted to a single cluster, created once the cluster size is known
+    private ClusterSearch localSearch;
+
+    // Abstract search state, indexed by entrance number with the start and goal after the
+    // entrances. Sized to the entrance graph and grown when it grows.
+    private int[] gCost = new int[0];
+    private int[] parent = new int[0];
+    private int[] openedStamp = new int[0];
+    private int[] closedStamp = new int[0];
+    private int generation = 0;
+    private IndexedMinHeap openSet = new IndexedMinHeap(0);
+
+    // Cells of the temporary start and goal nodes
+    private int startNode;
+    private int goalNode;
+    private int startCell;
+    private int goalCell;
+
+    private int nodesExpanded;
+    private int peakOpenSetSize;
+
+    public HierarchicalSearch(Grid grid) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+    }
+
+    @Override
+    public List<GridNode> findPath(int startX, int startY, int goalX, int goalY) {
+        nodesExpanded = 0;
+        peakOpenSetSize = 0;
+        view = grid.getClusterMap().current();
+        snapshot = view.snapshot;
+        if (!snapshot.isWalkable(goalX, goalY)) {
+            return new ArrayList<>();
+        }
+        if (localSearch == null) {
+            localSearch = new ClusterSearch(grid, view.getClusterSize());
+        }
+
+        Cluster startCluster = clusterAt(startX, startY);
+        Cluster goalCluster = clusterAt(goalX, goalY);
+
+        // Short queries inside one cluster skip the abstract level
+        if (startCluster == goalCluster) {
+            List<GridNode> path = localSearch.findPathWithin(snapshot, startX, startY, goalX, goalY,
+                    startCluster.minX, startCluster.minY, startCluster.maxX, startCluster.maxY);
+            countLocalSearch();
+            if (!path.isEmpty()) return path;
+        }
+
+        // Connect the start and goal to the entrances of their clusters
+        int[] startCosts = costsToEntrances(startCluster, startX, startY);
+        int[] goalCosts = costsToEntrances(goalCluster, goalX, goalY);
+
+        startCell = startY * width + startX;
+        goalCell = goalY * width + goalX;
+        if (!searchAbstract(startCluster, goalCluster, startCosts, goalCosts)) {
+            return new ArrayList<>();
+        }
+
+        // Collect the abstract path and refine each leg into cells
+        List<Integer> waypoints = new ArrayList<>();
+        for (int node = goalNode; node != -1; node = parent[node]) {
+            waypoints.add(cellOf(node));
+        }
+        Collections.reverse(waypoints);
+
+        List<GridNode> path = new ArrayList<>();
+        path.add(grid.getNode(startX, startY));
+        for (int i = 1; i < waypoints.size(); ++i) {
+            int from = waypoints.get(i - 1);
+            int to = waypoints.get(i);
+            if (from == to) continue;
+
+            int fromX = from % width;
+            int fromY = from / width;
+            int toX = to % width;
+            int toY = to / width;
+            Cluster cluster = clusterAt(fromX, fromY);
+
+            if (cluster == clusterAt(toX, toY)) {
+                List<GridNode> leg = localSearch.findPathWithin(snapshot, fromX, fromY, toX, toY,
+                        cluster.minX, cluster.minY, cluster.maxX, cluster.maxY);
+                countLocalSearch();
+                path.addAll(leg.subList(1, leg.size()));
+            } else {
+                // Entrances in neighboring clusters are one step apart
+                path.add(grid.getNode(toX, toY));
+            }
+        }
+
+        return path;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public int getPeakOpenSetSize() {
+        return peakOpenSetSize;
+    }
+
+    private void countLocalSearch() {
+        nodesExpanded += localSearch.getNodesExpanded();
+        peakOpenSetSize = Math.max(peakOpenSetSize, localSearch.getPeakOpenSetSize());
+    }
+
+    // A* over the entrance graph, with the start and goal as temporary nodes
+    private boolean searchAbstract(Cluster startCluster, Cluster goalCluster, int[] startCosts, int[] goalCosts) {
+        startNode = view.getNodeCount();
+        goalNode = startNode + 1;
+        ensureCapacity(goalNode + 1);
+        if (++generation == 0) {
+            Arrays.fill(openedStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            generation = 1;
+        }
+        openSet.clear();
+
+        int goalX = goalCell % width;
+        int goalY = goalCell / width;
+        open(startNode, 0, -1, goalX, goalY);
+
+        int startFirst = view.nodeOf(startCell, 0);
+        int goalFirst = view.nodeOf(goalCell, 0);
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == goalNode) return true;
+
+            closedStamp[current] = generation;
+            ++nodesExpanded;
+
+            if (current == startNode) {
+                for (int i = 0; i < startCluster.entrances.length; ++i) {
+                    relax(current, startFirst + i, startCosts[i], goalX, goalY);
+                }
+                continue;
+            }
+
+            int cell = view.cellOf(current);
+            Cluster cluster = clusterAt(cell % width, cell / width);
+            int first = view.nodeOf(cell, 0);
+            int slot = current - first;
+
+            for (int i = 0; i < cluster.entrances.length; ++i) {
+                relax(current, first + i, cluster.distances[slot][i], goalX, goalY);
+            }
+            for (int partner : cluster.partners[slot]) {
+                // Both clusters scan their shared border alike, so the partner is an entrance
+                // too. If it ever is not, the step is left out rather than landing on another node.
+                int partnerSlot = clusterAt(partner % width, partner / width).slotOf(partner);
+                if (partnerSlot == -1) continue;
+
+                relax(current, view.nodeOf(partner, partnerSlot), Grid.STRAIGHT_COST, goalX, goalY);
+            }
+            if (first == goalFirst) {
+                relax(current, goalNode, goalCosts[slot], goalX, goalY);
+            }
+        }
+
+        return false;
+    }
+
+    private void relax(int current, int successor, int stepCost, int goalX, int goalY) {
+        if (stepCost == INFINITY || closedStamp[successor] == generation) return;
+
+        int tentativeGCost = gCost[current] + stepCost;
+        if (openedStamp[successor] != generation || tentativeGCost < gCost[successor]) {
+            open(successor, tentativeGCost, current, goalX, goalY);
+        }
+    }
+
+    private void open(int node, int g, int from, int goalX, int goalY) {
+        int cell = cellOf(node);
+        int h = Grid.segmentCost(cell % width, cell / width, goalX, goalY);
+        gCost[node] = g;
+        parent[node] = from;
+        openedStamp[node] = generation;
+        openSet.insertOrUpdate(node, g + h, h);
+        peakOpenSetSize = Math.max(peakOpenSetSize, openSet.size());
+    }
+
+    private int cellOf(int node) {
+        if (node == startNode) return startCell;
+        if (node == goalNode) return goalCell;
+        return view.cellOf(node);
+    }
+
+    // Fresh arrays start with every stamp at zero, which no generation uses
+    private void ensureCapacity(int nodeCount) {
+        if (gCost.length >= nodeCount) return;
+
+        int capacity = Math.max(nodeCount, gCost.length * 3 / 2);
+        gCost = new int[capacity];
+        parent = new int[capacity];
+        openedStamp = new int[capacity];
+        closedStamp = new int[capacity];
+        openSet = new IndexedMinHeap(capacity);
+    }
+
+    private int[] costsToEntrances(Cluster cluster, int x, int y) {
+        int[] costs = new int[cluster.entrances.length];
+        for (int i = 0; i < costs.length; ++i) {
+            int entrance = cluster.entrances[i];
+            costs[i] = localSearch.findCostWithin(snapshot, x, y, entrance % width, entrance / width,
+                    cluster.minX, cluster.minY, cluster.maxX, cluster.maxY);
+            countLocalSearch();
+        }
+        return costs;
+    }
+
+    private Cluster clusterAt(int x, int y) {
+        return view.clusterAt(x, y);
+    }
+}
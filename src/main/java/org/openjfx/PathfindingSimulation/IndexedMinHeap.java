@@ -0,0 +1,168 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.Arrays;
+
+// Binary min-heap over the integers [0, capacity) that tracks where each item sits,
+// so membership is O(1) and changing an item's key is O(log n).
+// Items are ordered by key, with ties broken by the secondary key.
+// Keys are stored next to their heap slot, so only the position table grows with the
+// capacity; the heap itself grows with the number of items actually queued.
+public class IndexedMinHeap {
+    private static final int INITIAL_SIZE = 64;
+
+    private int[] heap;
+    private int[] keys;
+    private int[] secondaryKeys;
+    private final int[] position; // -1 when the item is not in the heap
+    private int size;
+
+    // Largest size since the last clear
+    private int peakSize;
+
+    public IndexedMinHeap(int capacity) {
+        int initialSize = Math.min(capacity, INITIAL_SIZE);
+        this.heap = new int[initialSize];
+        this.keys = new int[initialSize];
+        this.secondaryKeys = new int[initialSize];
+        this.position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int item) {
+        return position[item] >= 0;
+    }
+
+    // Inserts the item, or moves it if it is already in the heap
+    public void insertOrUpdate(int item, int key, int secondaryKey) {
+        if (contains(item)) {
+            update(item, key, secondaryKey);
+            return;
+        }
+
+        if (size == heap.length) {
+            int newLength = Math.max(1, (int) Math.min((long) size * 2, position.length));
+            heap = Arrays.copyOf(heap, newLength);
+            keys = Arrays.copyOf(keys, newLength);
+            secondaryKeys = Arrays.copyOf(secondaryKeys, newLength);
+        }
+        siftUp(size++, item, key, secondaryKey);
+        peakSize = Math.max(peakSize, size);
+    }
+
+    // Changes the key of an item already in the heap, in either direction
+    public void update(int item, int key, int secondaryKey) {
+        int index = position[item];
+        if (less(key, secondaryKey, keys[index], secondaryKeys[index])) {
+            siftUp(index, item, key, secondaryKey);
+        } else {
+            siftDown(index, item, key, secondaryKey);
+        }
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    // Key of the top item, or Integer.MAX_VALUE when empty
+    public int peekKey() {
+        return size == 0 ? Integer.MAX_VALUE : keys[0];
+    }
+
+    public int peekSecondaryKey() {
+        return size == 0 ? Integer.MAX_VALUE : secondaryKeys[0];
+    }
+
+    public int poll() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    public void remove(int item) {
+        if (contains(item)) {
+            removeAt(position[item]);
+        }
+    }
+
+    // Empties the heap in O(size) rather than O(capacity)
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+        peakSize = 0;
+    }
+
+    public int getPeakSize() {
+        return peakSize;
+    }
+
+    private void removeAt(int index) {
+        position[heap[index]] = -1;
+
+        int last = --size;
+        if (index == last) return;
+
+        // Reinsert the last item at the hole, moving it whichever way its key needs
+        int item = heap[last];
+        int key = keys[last];
+        int secondaryKey = secondaryKeys[last];
+        if (index > 0 && less(key, secondaryKey, keys[(index - 1) >>> 1], secondaryKeys[(index - 1) >>> 1])) {
+            siftUp(index, item, key, secondaryKey);
+        } else {
+            siftDown(index, item, key, secondaryKey);
+        }
+    }
+
+    // Places the item at the index or above it, moving larger parents down
+    private void siftUp(int index, int item, int key, int secondaryKey) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(key, secondaryKey, keys[parent], secondaryKeys[parent])) break;
+            move(parent, index);
+            index = parent;
+        }
+        place(index, item, key, secondaryKey);
+    }
+
+    // Places the item at the index or below it, moving smaller children up
+    private void siftDown(int index, int item, int key, int secondaryKey) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && less(keys[child + 1], secondaryKeys[child + 1], keys[child], secondaryKeys[child])) {
+                ++child;
+            }
+            if (!less(keys[child], secondaryKeys[child], key, secondaryKey)) break;
+            move(child, index);
+            index = child;
+        }
+        place(index, item, key, secondaryKey);
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        keys[to] = keys[from];
+        secondaryKeys[to] = secondaryKeys[from];
+        position[heap[to]] = to;
+    }
+
+    private void place(int index, int item, int key, int secondaryKey) {
+        heap[index] = item;
+        keys[index] = key;
+        secondaryKeys[index] = secondaryKey;
+        position[item] = index;
+    }
+
+    private static boolean less(int key, int secondaryKey, int otherKey, int otherSecondaryKey) {
+        return key < otherKey || (key == otherKey && secondaryKey < otherSecondaryKey);
+    }
+}
@@ -0,0 +1,76 @@
+package org.openjfx.PathfindingSimulation;
+
+// Jump distances for JPS+ in all eight directions, built once per grid snapshot.
+// A positive entry is the number of steps to the next jump point, otherwise the entry
+// is minus the number of free steps before hitting an obstacle or the grid edge.
+// The table is never modified after construction, so threads can share it.
+public final class JumpDistanceTable {
+    // Maps (dy + 1) * 3 + (dx + 1) to the matching index in DIR_X/DIR_Y
+    private static final int[] DIR_INDEX = { 7, 0, 4, 3, -1, 1, 6, 2, 5 };
+
+    private final long version;
+    private final int[] distances;
+
+    public JumpDistanceTable(GridSnapshot snapshot) {
+        this.version = snapshot.getVersion();
+        this.distances = new int[snapshot.getWidth() * snapshot.getHeight() * 8];
+        build(snapshot);
+    }
+
+    // Distance entry for the cell in the direction (dx, dy)
+    public int get(int cell, int dx, int dy) {
+        return distances[cell * 8 + DIR_INDEX[(dy + 1) * 3 + (dx + 1)]];
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    private void build(GridSnapshot snapshot) {
+        int width = snapshot.getWidth();
+        int height = snapshot.getHeight();
+
+        // Straight directions first, since the diagonal entries are derived from them
+        for (int dir = 0; dir < 8; ++dir) {
+            int dx = AStarSearch.DIR_X[dir];
+            int dy = AStarSearch.DIR_Y[dir];
+            int straightX = DIR_INDEX[4 + dx];
+            int straightY = DIR_INDEX[(dy + 1) * 3 + 1];
+
+            // Visit cells so that the next cell in this direction is always done first
+            for (int row = 0; row < height; ++row) {
+                int y = dy > 0 ? height - 1 - row : row;
+                for (int column = 0; column < width; ++column) {
+                    int x = dx > 0 ? width - 1 - column : column;
+                    int nextX = x + dx;
+                    int nextY = y + dy;
+                    int next = nextY * width + nextX;
+                    int distance;
+
+                    // The mask already rules out diagonals that would cut a corner
+                    if ((snapshot.neighborMask(x, y) & (1 << dir)) == 0) {
+                        distance = 0;
+                    } else if (dir < 4 ? hasForcedNeighbor(snapshot, nextX, nextY, dx, dy)
+                            : distances[next * 8 + straightX] > 0 || distances[next * 8 + straightY] > 0) {
+                        distance = 1;
+                    } else {
+                        int nextDistance = distances[next * 8 + dir];
+                        distance = nextDistance > 0 ? nextDistance + 1 : nextDistance - 1;
+                    }
+
+                    distances[(y * width + x) * 8 + dir] = distance;
+                }
+            }
+        }
+    }
+
+    // Same rule as JumpPointSearch.hasForcedNeighbor
+    private static boolean hasForcedNeighbor(GridSnapshot snapshot, int x, int y, int dx, int dy) {
+        if (dx != 0) {
+            return (snapshot.isWalkable(x, y - 1) && !snapshot.isWalkable(x - dx, y - 1))
+                || (snapshot.isWalkable(x, y + 1) && !snapshot.isWalkable(x - dx, y + 1));
+        }
+        return (snapshot.isWalkable(x - 1, y) && !snapshot.isWalkable(x - 1, y - dy))
+            || (snapshot.isWalkable(x + 1, y) && !snapshot.isWalkable(x + 1, y - dy));
+    }
+}
@@ -0,0 +1,38 @@
+package org.openjfx.PathfindingSimulation;
+
+// JPS+ : Jump Point Search over the precomputed jump distances of a JumpDistanceTable.
+// The table is shared between threads and rebuilt for each new grid snapshot.
+public class JumpPointPlusSearch extends JumpPointSearch {
+    private JumpDistanceTable jumpDistances;
+
+    public JumpPointPlusSearch(Grid grid) {
+        super(grid);
+    }
+
+    @Override
+    protected void prepare() {
+        jumpDistances = grid.getJumpDistances(snapshot);
+    }
+
+    @Override
+    protected int jump(int x, int y, int dx, int dy, int goalX, int goalY) {
+        int distance = jumpDistances.get(y * width + x, dx, dy);
+        int reach = Math.abs(distance);
+        int goalDX = goalX - x;
+        int goalDY = goalY - y;
+
+        if (dx == 0 || dy == 0) {
+            // The goal lies on this ray before any obstacle or jump point
+            boolean onRay = dx == 0
+                ? goalDX == 0 && Integer.signum(goalDY) == dy && Math.abs(goalDY) <= reach
+                : goalDY == 0 && Integer.signum(goalDX) == dx && Math.abs(goalDX) <= reach;
+            if (onRay) return goalY * width + goalX;
+        } else if (Integer.signum(goalDX) == dx && Integer.signum(goalDY) == dy) {
+            // Stop where the diagonal crosses the goal's row or column so a straight scan can reach it
+            int steps = Math.min(Math.abs(goalDX), Math.abs(goalDY));
+            if (steps <= reach) return (y + steps * dy) * width + (x + steps * dx);
+        }
+
+        return distance > 0 ? (y + distance * dy) * width + (x + distance * dx) : -1;
+    }
+}
@@ -0,0 +1,102 @@
+package org.openjfx.PathfindingSimulation;
+
+// Jump Point Search for uniform-cost grids where diagonal moves may not cut corners.
+// Instead of opening every neighbor, each expansion scans along the pruned directions
+// and only opens the next jump point, skipping the symmetric paths through open areas.
+public class JumpPointSearch extends AStarSearch {
+
+    public JumpPointSearch(Grid grid) {
+        super(grid);
+    }
+
+    @Override
+    protected void expand(int current, int goalX, int goalY) {
+        int x = current % width;
+        int y = current / width;
+
+        if (parent[current] == -1) {
+            // The start node scans in every direction it can move
+            for (int dir = 0; dir < 8; ++dir) {
+                int dx = DIR_X[dir];
+                int dy = DIR_Y[dir];
+                if (dir >= 4 && (!isWalkable(x + dx, y) || !isWalkable(x, y + dy))) continue;
+                scan(current, x, y, dx, dy, goalX, goalY);
+            }
+            return;
+        }
+
+        int dx = Integer.signum(x - parent[current] % width);
+        int dy = Integer.signum(y - parent[current] / width);
+
+        if (dx != 0 && dy != 0) {
+            boolean nextXWalkable = isWalkable(x + dx, y);
+            boolean nextYWalkable = isWalkable(x, y + dy);
+            if (nextYWalkable) scan(current, x, y, 0, dy, goalX, goalY);
+            if (nextXWalkable) scan(current, x, y, dx, 0, goalX, goalY);
+            if (nextXWalkable && nextYWalkable) scan(current, x, y, dx, dy, goalX, goalY);
+        } else if (dx != 0) {
+            boolean nextWalkable = isWalkable(x + dx, y);
+            boolean topWalkable = isWalkable(x, y - 1);
+            boolean bottomWalkable = isWalkable(x, y + 1);
+            if (nextWalkable) {
+                scan(current, x, y, dx, 0, goalX, goalY);
+                if (topWalkable) scan(current, x, y, dx, -1, goalX, goalY);
+                if (bottomWalkable) scan(current, x, y, dx, 1, goalX, goalY);
+            }
+            if (topWalkable) scan(current, x, y, 0, -1, goalX, goalY);
+            if (bottomWalkable) scan(current, x, y, 0, 1, goalX, goalY);
+        } else {
+            boolean nextWalkable = isWalkable(x, y + dy);
+            boolean leftWalkable = isWalkable(x - 1, y);
+            boolean rightWalkable = isWalkable(x + 1, y);
+            if (nextWalkable) {
+                scan(current, x, y, 0, dy, goalX, goalY);
+                if (leftWalkable) scan(current, x, y, -1, dy, goalX, goalY);
+                if (rightWalkable) scan(current, x, y, 1, dy, goalX, goalY);
+            }
+            if (leftWalkable) scan(current, x, y, -1, 0, goalX, goalY);
+            if (rightWalkable) scan(current, x, y, 1, 0, goalX, goalY);
+        }
+    }
+
+    // Opens the jump point found from (x, y) in the given direction, if any
+    private void scan(int current, int x, int y, int dx, int dy, int goalX, int goalY) {
+        int jumpPoint = jump(x, y, dx, dy, goalX, goalY);
+        if (jumpPoint != -1) {
+            relax(current, jumpPoint, Grid.segmentCost(x, y, jumpPoint % width, jumpPoint / width), goalX, goalY);
+        }
+    }
+
+    // Returns the first jump point reached by moving from (x, y) in the given direction, or -1
+    protected int jump(int x, int y, int dx, int dy, int goalX, int goalY) {
+        while (true) {
+            // Diagonal steps need both orthogonal cells free
+            if (dx != 0 && dy != 0 && (!isWalkable(x + dx, y) || !isWalkable(x, y + dy))) return -1;
+
+            x += dx;
+            y += dy;
+
+            if (!isWalkable(x, y)) return -1;
+            if (x == goalX && y == goalY) return y * width + x;
+
+            if (dx != 0 && dy != 0) {
+                // A diagonal cell is a jump point when a straight scan from it finds one
+                if (jump(x, y, dx, 0, goalX, goalY) != -1 || jump(x, y, 0, dy, goalX, goalY) != -1) {
+                    return y * width + x;
+                }
+            } else if (hasForcedNeighbor(x, y, dx, dy)) {
+                return y * width + x;
+            }
+        }
+    }
+
+    // True when a side cell opens up that the previous cell could not reach diagonally
+    protected final boolean hasForcedNeighbor(int x, int y, int dx, int dy) {
+        if (dx != 0) {
+            return (isWalkable(x, y - 1) && !isWalkable(x - dx, y - 1))
+                || (isWalkable(x, y + 1) && !isWalkable(x - dx, y + 1));
+        }
+        return (isWalkable(x - 1, y) && !isWalkable(x - 1, y - dy))
+            || (isWalkable(x + 1, y) && !isWalkable(x + 1, y - dy));
+    }
+}
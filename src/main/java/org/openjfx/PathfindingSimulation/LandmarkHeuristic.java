@@ -0,0 +1,50 @@
+package org.openjfx.PathfindingSimulation;
+
+// ALT heuristic for Grid.setHeuristic. The landmark tables are built for the snapshot a
+// search runs on the first time it is needed, and rebuilt lazily once the grid has been
+// edited, so a burst of setObstacle calls costs one rebuild rather than one per edit.
+// Use one instance per grid, since tables are matched to snapshots by version.
+public class LandmarkHeuristic implements Heuristic {
+    static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    private final int landmarkCount;
+    private volatile LandmarkTable table;
+
+    public LandmarkHeuristic() {
+        this(DEFAULT_LANDMARK_COUNT);
+    }
+
+    public LandmarkHeuristic(int landmarkCount) {
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException("landmarkCount must be positive, got " + landmarkCount);
+        }
+        this.landmarkCount = landmarkCount;
+    }
+
+    @Override
+    public int estimate(int dx, int dy) {
+        return Heuristic.OCTILE.estimate(dx, dy);
+    }
+
+    // Tables for this snapshot, building them if the grid has changed since the last ones.
+    // A search still running on an older snapshot than the tables falls back to octile
+    // distance, since a cell opened since then could make the landmark bounds too high.
+    @Override
+    public Heuristic forSnapshot(GridSnapshot snapshot) {
+        LandmarkTable current = table;
+        if (current != null && current.getVersion() >= snapshot.getVersion()) {
+            return current.getVersion() == snapshot.getVersion() ? current : Heuristic.OCTILE;
+        }
+
+        synchronized (this) {
+            if (table == null || table.getVersion() < snapshot.getVersion()) {
+                table = new LandmarkTable(snapshot, landmarkCount);
+            }
+            return table.getVersion() == snapshot.getVersion() ? table : Heuristic.OCTILE;
+        }
+    }
+
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+}
@@ -0,0 +1,163 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.Arrays;
+
+// ALT (A*, Landmarks, Triangle inequality) distances for one grid snapshot. A few
+// landmark cells are chosen far apart, and the true path cost from each landmark to
+// every cell is stored. For any landmark L, cost(n, goal) >= |cost(L, goal) - cost(L, n)|,
+// so the largest of these bounds is an admissible estimate that sees walls octile
+// distance cannot: behind a wall, the landmark costs reflect the way around it.
+//
+// Costs are stored as 16-bit units, interleaved per cell so a lookup reads one short run.
+// On maps where costs outgrow 16 bits, a landmark stores its costs in coarser units and
+// its bounds are lowered to stay admissible; A* does not reopen closed nodes, so such a
+// bound can then occasionally cost a path its optimality. The table is never modified
+// after construction, so threads can share it.
+final class LandmarkTable implements Heuristic {
+    private static final char UNREACHED = Character.MAX_VALUE;
+
+    private final GridSnapshot snapshot;
+    private final long version;
+    private final int width;
+    private final int[] landmarks;
+    private final int landmarkCount;
+
+    // Cost from landmark i to cell c, in units of scales[i], at c * stride + i
+    private final int stride;
+    private final char[] costs;
+    private final int[] scales;
+
+    LandmarkTable(GridSnapshot snapshot, int wanted) {
+        this.snapshot = snapshot;
+        this.version = snapshot.getVersion();
+        this.width = snapshot.getWidth();
+        int cellCount = width * snapshot.getHeight();
+
+        // Keeps the interleaved table within the largest array Java can allocate
+        this.stride = Math.max(0, Math.min(wanted, (Integer.MAX_VALUE - 8) / cellCount));
+        this.costs = new char[cellCount * stride];
+        this.scales = new int[stride];
+        this.landmarks = new int[stride];
+        this.landmarkCount = build();
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    // Fewer than asked for if the map has fewer open cells
+    int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    @Override
+    public int estimate(int dx, int dy) {
+        return Heuristic.OCTILE.estimate(dx, dy);
+    }
+
+    // Largest landmark bound, never below octile distance
+    @Override
+    public int estimate(int x, int y, int goalX, int goalY) {
+        int best = Heuristic.OCTILE.estimate(Math.abs(x - goalX), Math.abs(y - goalY));
+        int cell = (y * width + x) * stride;
+        int goal = (goalY * width + goalX) * stride;
+        for (int i = 0; i < landmarkCount; ++i) {
+            char cellCost = costs[cell + i];
+            char goalCost = costs[goal + i];
+            if (cellCost == UNREACHED || goalCost == UNREACHED) continue;
+
+            // Either stored cost may be up to one unit short of the true cost
+            int bound = Math.abs(goalCost - cellCost) * scales[i] - (scales[i] - 1);
+            best = Math.max(best, bound);
+        }
+        return best;
+    }
+
+    // Farthest-point selection: each landmark is the open cell furthest from the landmarks
+    // chosen so far, starting from the cell furthest from the first open cell. Cells no
+    // landmark reaches count as furthest, so every component gets a landmark if it can.
+    // Each landmark's cost table comes from the same Dijkstra run that measured it.
+    private int build() {
+        int cellCount = width * snapshot.getHeight();
+        int[] distance = new int[cellCount];
+        int[] nearest = new int[cellCount];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        IndexedMinHeap openSet = new IndexedMinHeap(cellCount);
+
+        int seed = -1;
+        for (int cell = 0; cell < cellCount && seed == -1; ++cell) {
+            if (snapshot.isWalkable(cell % width, cell / width)) seed = cell;
+        }
+        if (seed == -1) return 0;
+
+        dijkstra(seed, distance, openSet);
+        int next = farthest(distance);
+
+        int count = 0;
+        while (count < stride && next != -1) {
+            landmarks[count] = next;
+            dijkstra(next, distance, openSet);
+            store(count, distance);
+
+            for (int cell = 0; cell < cellCount; ++cell) {
+                nearest[cell] = Math.min(nearest[cell], distance[cell]);
+            }
+            ++count;
+            next = farthest(nearest);
+        }
+        return count;
+    }
+
+    // Open cell with the largest value, or -1 if every open cell is at zero
+    private int farthest(int[] values) {
+        int best = -1;
+        int bestValue = 0;
+        for (int cell = 0; cell < values.length; ++cell) {
+            if (values[cell] > bestValue && snapshot.isWalkable(cell % width, cell / width)) {
+                best = cell;
+                bestValue = values[cell];
+            }
+        }
+        return best;
+    }
+
+    // Picks the finest units that fit the landmark's largest finite cost into 16 bits
+    private void store(int landmark, int[] distance) {
+        int max = 0;
+        for (int value : distance) {
+            if (value != Integer.MAX_VALUE) max = Math.max(max, value);
+        }
+        int scale = Math.max(1, (max + UNREACHED - 2) / (UNREACHED - 1));
+        scales[landmark] = scale;
+
+        for (int cell = 0; cell < distance.length; ++cell) {
+            costs[cell * stride + landmark] = distance[cell] == Integer.MAX_VALUE
+                    ? UNREACHED : (char) (distance[cell] / scale);
+        }
+    }
+
+    // Path cost from the source to every cell, Integer.MAX_VALUE where unreachable
+    private void dijkstra(int source, int[] distance, IndexedMinHeap openSet) {
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        openSet.clear();
+        distance[source] = 0;
+        openSet.insertOrUpdate(source, 0, 0);
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            int currentX = current % width;
+            int currentY = current / width;
+            int mask = snapshot.neighborMask(currentX, currentY);
+            for (int dir = 0; dir < 8; ++dir) {
+                if ((mask & (1 << dir)) == 0) continue;
+
+                int next = (currentY + AStarSearch.DIR_Y[dir]) * width + currentX + AStarSearch.DIR_X[dir];
+                int cost = distance[current] + (dir < 4 ? Grid.STRAIGHT_COST : Grid.DIAGONAL_COST);
+                if (cost < distance[next]) {
+                    distance[next] = cost;
+                    openSet.insertOrUpdate(next, cost, 0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.openjfx.PathfindingSimulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event for laying out a new episode, timed over the layout but not the
+// first path. Off unless a recording's settings enable it.
+@Name("org.openjfx.PathfindingSimulation.LevelReset")
+@Label("Level Reset")
+@Category("Pathfinding")
+@Description("Placing the target, agent and obstacles of a new episode")
+@Enabled(false)
+@StackTrace(false)
+final class LevelResetEvent extends jdk.jfr.Event {
+    @Label("Placement Attempts")
+    @Description("Obstacle positions drawn, including those turned down")
+    long attempts;
+
+    @Label("Obstacles Wanted")
+    int obstaclesWanted;
+
+    @Label("Obstacles Placed")
+    int obstaclesPlaced;
+}
@@ -0,0 +1,72 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Straight-line visibility between cell centers. A segment is clear when a square of the
+// given half-width, swept along it, touches no blocked cell. With a half-width of zero this
+// is a supercover test: every cell the line passes through or touches is checked, so a
+// line through the corner where two blocked cells meet counts as blocked, the same rule
+// that keeps diagonal steps from cutting corners.
+final class LineOfSight {
+    // Keeps rounding on the safe side, so grazing a cell edge counts as touching it
+    private static final double EPSILON = 1e-9;
+
+    private LineOfSight() {
+    }
+
+    // Half-width is in cells; cells span half a cell either side of their center
+    static boolean isClear(GridSnapshot snapshot, int x0, int y0, int x1, int y1, double halfWidth) {
+        int width = snapshot.getWidth();
+        int height = snapshot.getHeight();
+        double reach = 0.5 + halfWidth + EPSILON;
+        int dx = x1 - x0;
+        int dy = y1 - y0;
+
+        int minColumn = (int) Math.ceil(Math.min(x0, x1) - reach);
+        int maxColumn = (int) Math.floor(Math.max(x0, x1) + reach);
+        for (int column = minColumn; column <= maxColumn; ++column) {
+            // Part of the segment whose square overlaps this column
+            double from = 0;
+            double to = 1;
+            if (dx != 0) {
+                double enter = (column - reach - x0) / dx;
+                double leave = (column + reach - x0) / dx;
+                from = Math.max(0, Math.min(enter, leave));
+                to = Math.min(1, Math.max(enter, leave));
+                if (from > to) continue;
+            }
+
+            double fromY = y0 + dy * from;
+            double toY = y0 + dy * to;
+            int minRow = (int) Math.ceil(Math.min(fromY, toY) - reach);
+            int maxRow = (int) Math.floor(Math.max(fromY, toY) + reach);
+            for (int row = minRow; row <= maxRow; ++row) {
+                if (column < 0 || column >= width || row < 0 || row >= height) return false;
+                if (!snapshot.isWalkable(column, row)) return false;
+            }
+        }
+        return true;
+    }
+
+    // String pulling: keeps only the nodes where the path has to turn. From each kept node,
+    // the furthest later node still in sight becomes the next one.
+    static List<GridNode> smooth(GridSnapshot snapshot, List<GridNode> path, double halfWidth) {
+        if (path.size() <= 2) {
+            return new ArrayList<>(path);
+        }
+
+        List<GridNode> smoothed = new ArrayList<>();
+        GridNode anchor = path.get(0);
+        smoothed.add(anchor);
+        for (int i = 2; i < path.size(); ++i) {
+            GridNode next = path.get(i);
+            if (!isClear(snapshot, anchor.getXPos(), anchor.getYPos(), next.getXPos(), next.getYPos(), halfWidth)) {
+                anchor = path.get(i - 1);
+                smoothed.add(anchor);
+            }
+        }
+        smoothed.add(path.get(path.size() - 1));
+        return smoothed;
+    }
+}
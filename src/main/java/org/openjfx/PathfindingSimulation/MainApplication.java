@@ -2,25 +2,58 @@ package org.openjfx.PathfindingSimulation;
 
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
+import java.util.Map;
+
 public class MainApplication extends Application {
 	
-	private static final int WINDOW_SIZE_WIDTH = 1000;
-	private static final int WINDOW_SIZE_HEIGHT = 1000;
-	private static final int LOSE = 1;
-	private static final int WIN = 2;
+	// Largest window opened; bigger maps are clipped to it
+	private static final int MAX_WINDOW_SIZE = 1000;
+	
+	private Field gameField;
     
     @Override
     public void start(Stage primaryStage) {
+        // Search, step and frame metrics for JConsole or any other JMX client
+        PathfindingMetrics.register();
+        
         BorderPane root = new BorderPane();
         
+        // Map size and obstacles from named arguments, e.g. --gridWidth=1000 --gridSquareSize=10
+        Map<String, String> arguments = getParameters().getNamed();
+        MapConfig config;
+        double tickRate;
+        double speed;
+        try {
+            config = MapConfig.fromArguments(arguments);
+            
+            // Simulation ticks per second and how many times faster than real time to run
+            tickRate = MapConfig.doubleArgument(arguments, "tickRate", SimulationLoop.DEFAULT_TICK_RATE);
+            speed = MapConfig.doubleArgument(arguments, "speed", 1);
+            if (!(tickRate > 0)) {
+                throw new IllegalArgumentException("tickRate must be positive, got " + tickRate);
+            }
+            if (!(speed > 0)) {
+                throw new IllegalArgumentException("speed must be positive, got " + speed);
+            }
+        } catch (IllegalArgumentException e) {
+            // Reported like the headless runner does, before any window or map is built
+            System.out.println("ERROR: " + e.getMessage());
+            Platform.exit();
+            return;
+        }
+        
+        int viewWidth = Math.min(config.getWindowWidth(), MAX_WINDOW_SIZE);
+        int viewHeight = Math.min(config.getWindowHeight(), MAX_WINDOW_SIZE);
+        
         // Game field setup
-        Field gameField = new Field();
-        gameField.initializeField();
+        gameField = new Field(config, viewWidth, viewHeight, tickRate);
+        gameField.getLoop().setSpeed(speed);
         
         // Menu setup
         // GameMenu gameMenu = new GameMenu();
@@ -29,7 +62,7 @@ public class MainApplication extends Application {
         root.setCenter(gameField);
         //root.setRight(gameMenu);
         
-        Scene scene = new Scene(root, WINDOW_SIZE_WIDTH, WINDOW_SIZE_HEIGHT);
+        Scene scene = new Scene(root, viewWidth, viewHeight);
         
         scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> gameField.addKey(e));
         scene.addEventFilter(KeyEvent.KEY_RELEASED, e -> gameField.removeKey(e));
@@ -38,35 +71,44 @@ public class MainApplication extends Application {
         primaryStage.setScene(scene);
         primaryStage.show();
         
-        // Player movement loop
+        // The simulation runs, and resets finished episodes, on its own thread; frames only draw it
+        gameField.start();
         new AnimationTimer() {
+            private long previousFrame;
+
             @Override
             public void handle(long now) {
-                if(gameField.updateComputerPosition()) {
-                	int collisionType = gameField.checkPlayerCollision();
-                    
-                    switch(collisionType) {
-                    	case 0:
-                    		break;
-                    	case LOSE:
-                    		gameField.clearMomentum();
-                    		gameField.initializeField();
-                    		//gameMenu.incrementDeaths();
-                    		break;
-                    	case WIN:
-                    		gameField.clearMomentum();
-                    		gameField.initializeField();
-                    		//gameMenu.incrementScore();
-                    		break;
-                    	default:
-                    		break;
+                RenderFrameEvent event = null;
+                if (FlightEvents.isRenderFrameEnabled()) {
+                    event = new RenderFrameEvent();
+                    event.begin();
+                }
+                long renderStart = System.nanoTime();
+                gameField.render();
+                if (previousFrame != 0) {
+                    PathfindingMetrics.get().recordFrame(now - previousFrame, System.nanoTime() - renderStart);
+                }
+
+                if (event != null) {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.interval = previousFrame == 0 ? 0 : now - previousFrame;
+                        event.commit();
                     }
                 }
+                previousFrame = now;
             }
         }.start();
     }
+    
+    @Override
+    public void stop() {
+        if (gameField != null) {
+            gameField.stop();
+        }
+    }
 
     public static void main(String[] args) {
         launch(args);
     }
-}
\ No newline at end of file
+}
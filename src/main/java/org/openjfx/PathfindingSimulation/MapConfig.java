@@ -0,0 +1,179 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.Map;
+
+// Map dimensions and obstacle parameters chosen at startup.
+// The defaults match the original 40x40 field with 25 pixel squares.
+public class MapConfig {
+    // Smallest grid the spawn rules fit in, and the largest one allowed
+    static final int MIN_GRID_SIZE = 16;
+    static final int MAX_GRID_SIZE = 20000;
+
+    // Squares must leave room for the agent, target and obstacle borders
+    static final int MIN_GRID_SQUARE_SIZE = 8;
+    static final int MAX_GRID_SQUARE_SIZE = 200;
+
+    private int gridWidth = 40;
+    private int gridHeight = 40;
+    private int gridSquareSize = 25;
+
+    // Number of obstacles on the field
+    private int minObstacles = 15;
+    private int maxObstacles = 25;
+
+    // Size of the various obstacles in multiples of the background grid squares
+    private int minObstacleSize = 2;
+    private int maxObstacleSize = 4;
+
+    // Steer agents by the grid's shared flow field for the target instead of each
+    // agent's own D* Lite planner
+    private boolean flowField = false;
+
+    // Reads named arguments such as --gridWidth=1000, keeping the default for any that are missing
+    public static MapConfig fromArguments(Map<String, String> arguments) {
+        MapConfig config = new MapConfig();
+        config.setGridWidth(intArgument(arguments, "gridWidth", config.gridWidth));
+        config.setGridHeight(intArgument(arguments, "gridHeight", config.gridHeight));
+        config.setGridSquareSize(intArgument(arguments, "gridSquareSize", config.gridSquareSize));
+        config.setMinObstacles(intArgument(arguments, "minObstacles", config.minObstacles));
+        config.setMaxObstacles(intArgument(arguments, "maxObstacles", config.maxObstacles));
+        config.setMinObstacleSize(intArgument(arguments, "minObstacleSize", config.minObstacleSize));
+        config.setMaxObstacleSize(intArgument(arguments, "maxObstacleSize", config.maxObstacleSize));
+        config.setFlowField(booleanArgument(arguments, "flowField", config.flowField));
+        config.validate();
+        return config;
+    }
+
+    private static int intArgument(Map<String, String> arguments, String name, int defaultValue) {
+        String value = arguments.get(name);
+        if (value == null) return defaultValue;
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number, got \"" + value + "\"");
+        }
+    }
+
+    // Package-private so the launcher reports its own numeric arguments the same way
+    static double doubleArgument(Map<String, String> arguments, String name, double defaultValue) {
+        String value = arguments.get(name);
+        if (value == null) return defaultValue;
+
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, got \"" + value + "\"");
+        }
+    }
+
+    private static boolean booleanArgument(Map<String, String> arguments, String name, boolean defaultValue) {
+        String value = arguments.get(name);
+        if (value == null) return defaultValue;
+
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) return true;
+        if (trimmed.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException(name + " must be true or false, got \"" + value + "\"");
+    }
+
+    // Throws IllegalArgumentException describing the first setting that is out of range
+    public void validate() {
+        checkRange("gridWidth", gridWidth, MIN_GRID_SIZE, MAX_GRID_SIZE);
+        checkRange("gridHeight", gridHeight, MIN_GRID_SIZE, MAX_GRID_SIZE);
+        checkRange("gridSquareSize", gridSquareSize, MIN_GRID_SQUARE_SIZE, MAX_GRID_SQUARE_SIZE);
+
+        // Obstacles and the free ring around them stay off the outer squares of the field
+        int largestObstacle = Math.min(gridWidth, gridHeight) - 5;
+        checkRange("minObstacleSize", minObstacleSize, 1, largestObstacle);
+        checkRange("maxObstacleSize", maxObstacleSize, minObstacleSize, largestObstacle);
+        checkRange("minObstacles", minObstacles, 0, Integer.MAX_VALUE);
+        checkRange("maxObstacles", maxObstacles, minObstacles, Integer.MAX_VALUE);
+
+        // Leave at least half of the field open so placement can always finish
+        long smallestArea = (long) maxObstacles * minObstacleSize * minObstacleSize;
+        if (smallestArea > (long) gridWidth * gridHeight / 2) {
+            throw new IllegalArgumentException("maxObstacles of size " + minObstacleSize
+                    + " would cover more than half of a " + gridWidth + "x" + gridHeight + " grid");
+        }
+    }
+
+    private static void checkRange(String name, int value, int min, int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max + ", got " + value);
+        }
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    public void setGridWidth(int gridWidth) {
+        this.gridWidth = gridWidth;
+    }
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    public void setGridHeight(int gridHeight) {
+        this.gridHeight = gridHeight;
+    }
+
+    public int getGridSquareSize() {
+        return gridSquareSize;
+    }
+
+    public void setGridSquareSize(int gridSquareSize) {
+        this.gridSquareSize = gridSquareSize;
+    }
+
+    public int getMinObstacles() {
+        return minObstacles;
+    }
+
+    public void setMinObstacles(int minObstacles) {
+        this.minObstacles = minObstacles;
+    }
+
+    public int getMaxObstacles() {
+        return maxObstacles;
+    }
+
+    public void setMaxObstacles(int maxObstacles) {
+        this.maxObstacles = maxObstacles;
+    }
+
+    public int getMinObstacleSize() {
+        return minObstacleSize;
+    }
+
+    public void setMinObstacleSize(int minObstacleSize) {
+        this.minObstacleSize = minObstacleSize;
+    }
+
+    public int getMaxObstacleSize() {
+        return maxObstacleSize;
+    }
+
+    public void setMaxObstacleSize(int maxObstacleSize) {
+        this.maxObstacleSize = maxObstacleSize;
+    }
+
+    public boolean isFlowField() {
+        return flowField;
+    }
+
+    public void setFlowField(boolean flowField) {
+        this.flowField = flowField;
+    }
+
+    // Field size in pixels
+    public int getWindowWidth() {
+        return gridWidth * gridSquareSize;
+    }
+
+    public int getWindowHeight() {
+        return gridHeight * gridSquareSize;
+    }
+}
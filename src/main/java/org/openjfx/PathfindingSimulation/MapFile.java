@@ -0,0 +1,141 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary map format: a fixed header followed by the grid's walkability bitmap, stored
+// word for word in the padded layout WalkabilityBitmap uses in memory. Loading maps
+// the file and reads the bitmap in place. Only the border is validated up front, which
+// reads the edge words of each row, so the OS pages in the cell data a search touches
+// and little else.
+//
+// Header (little-endian, HEADER_SIZE bytes):
+//   int magic, int formatVersion, int width, int height, int wordsPerRow, zero padding
+public final class MapFile {
+    private static final int MAGIC = 0x50464d50; // "PFMP"
+    private static final int FORMAT_VERSION = 1;
+
+    // Keeps the bitmap 8-byte aligned within the file
+    static final int HEADER_SIZE = 64;
+
+    // Files are not held to MapConfig's limit for generated maps. Cell and word indices
+    // are ints, though, so a map holds at most this many cells counting its border,
+    // which is a bitmap of 256 MB
+    static final long MAX_PADDED_CELLS = Integer.MAX_VALUE;
+
+    // Bytes written per call when saving
+    private static final int WRITE_CHUNK_SIZE = 1 << 16;
+
+    private MapFile() {
+    }
+
+    // Opens a map without reading its bitmap; editing the grid copies the bitmap into memory first
+    public static Grid load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException(path + " is too short to be a map file");
+            }
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a map file");
+            }
+            int formatVersion = buffer.getInt(4);
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException(path + " uses unsupported map format version " + formatVersion);
+            }
+
+            int width = buffer.getInt(8);
+            int height = buffer.getInt(12);
+            int wordsPerRow = buffer.getInt(16);
+            if (width < 1 || height < 1 || (width + 2L) * (height + 2L) > MAX_PADDED_CELLS
+                    || wordsPerRow != WalkabilityBitmap.wordsPerRow(width)) {
+                throw new IOException(path + " has an invalid header (" + width + "x" + height + ")");
+            }
+
+            long wordCount = (long) wordsPerRow * (height + 2);
+            if (fileSize != HEADER_SIZE + wordCount * Long.BYTES) {
+                throw new IOException(path + " should be " + (HEADER_SIZE + wordCount * Long.BYTES)
+                        + " bytes for a " + width + "x" + height + " map but is " + fileSize);
+            }
+
+            buffer.position(HEADER_SIZE);
+            LongBuffer words = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            checkBorder(path, words, width, height, wordsPerRow);
+            return new Grid(new WalkabilityBitmap(width, height, words));
+        }
+    }
+
+    // Writes the grid as it is now, replacing any existing file
+    public static void save(Grid grid, Path path) throws IOException {
+        WalkabilityBitmap walkable = grid.snapshot().getWalkable();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putInt(walkable.getWidth());
+            header.putInt(walkable.getHeight());
+            header.putInt(WalkabilityBitmap.wordsPerRow(walkable.getWidth()));
+            header.clear();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int wordCount = walkable.wordCount();
+            for (int i = 0; i < wordCount; ++i) {
+                if (!chunk.hasRemaining()) {
+                    chunk.flip();
+                    writeFully(channel, chunk);
+                    chunk.clear();
+                }
+                chunk.putLong(walkable.word(i));
+            }
+            chunk.flip();
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Searches rely on the border reading as blocked, so any set bit outside the cells is
+    // rejected: the top and bottom rows, and the padding columns on both sides of every
+    // row. Files written by save always have a clear border.
+    private static void checkBorder(Path path, LongBuffer words, int width, int height, int wordsPerRow)
+            throws IOException {
+        int bottom = (height + 1) * wordsPerRow;
+        for (int i = 0; i < wordsPerRow; ++i) {
+            if (words.get(i) != 0 || words.get(bottom + i) != 0) {
+                throw new IOException(path + " has walkable cells in its border");
+            }
+        }
+
+        // Cells are padded columns 1 to width; everything from width + 1 on is padding
+        int lastWord = width >>> 6;
+        long cellBits = (width & 63) == 63 ? -1L : (1L << ((width & 63) + 1)) - 1;
+        for (int row = 1; row <= height; ++row) {
+            int base = row * wordsPerRow;
+            boolean padded = (words.get(base) & 1L) != 0 || (words.get(base + lastWord) & ~cellBits) != 0;
+            for (int i = lastWord + 1; i < wordsPerRow && !padded; ++i) {
+                padded = words.get(base + i) != 0;
+            }
+            if (padded) {
+                throw new IOException(path + " has walkable cells in its border");
+            }
+        }
+    }
+}
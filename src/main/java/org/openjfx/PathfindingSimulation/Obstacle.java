@@ -0,0 +1,26 @@
+package org.openjfx.PathfindingSimulation;
+
+// Square block of grid cells that the agent may not touch
+public class Obstacle {
+    private final int xGridPos;
+    private final int yGridPos;
+    private final int gridSize;
+
+    public Obstacle(int xGridPos, int yGridPos, int gridSize) {
+        this.xGridPos = xGridPos;
+        this.yGridPos = yGridPos;
+        this.gridSize = gridSize;
+    }
+
+    public int getXGridPos() {
+        return xGridPos;
+    }
+
+    public int getYGridPos() {
+        return yGridPos;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+}
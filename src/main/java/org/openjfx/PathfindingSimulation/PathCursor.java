@@ -0,0 +1,68 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Walks a planned path by index so the agent only replans when the path is no longer valid
+public class PathCursor {
+    private List<GridNode> path = new ArrayList<>();
+    private int index = 0;
+
+    // Grid version the path was planned against
+    private long gridVersion = -1;
+
+    public void reset(List<GridNode> newPath, long newGridVersion) {
+        path = newPath;
+        index = 0;
+        gridVersion = newGridVersion;
+    }
+
+    // Waypoint the agent is currently heading toward
+    public GridNode current() {
+        return path.get(index);
+    }
+
+    public void advance() {
+        ++index;
+    }
+
+    public boolean isFinished() {
+        return index >= path.size();
+    }
+
+    // True once obstacles have changed since the path was planned
+    public boolean isStale(Grid grid) {
+        return grid.getVersion() != gridVersion;
+    }
+
+    // True while the cell is at most one step away from the segment the agent is following,
+    // from the previous waypoint to the current one. Smoothed paths can have waypoints many
+    // cells apart, so the agent is measured against the whole segment rather than its end.
+    public boolean isOnCorridor(int x, int y) {
+        if (isFinished()) return false;
+
+        GridNode waypoint = current();
+        GridNode previous = index > 0 ? path.get(index - 1) : waypoint;
+        double segmentX = waypoint.getXPos() - previous.getXPos();
+        double segmentY = waypoint.getYPos() - previous.getYPos();
+        double lengthSquared = segmentX * segmentX + segmentY * segmentY;
+
+        // Nearest point on the segment to the cell
+        double t = 0;
+        if (lengthSquared > 0) {
+            t = ((x - previous.getXPos()) * segmentX + (y - previous.getYPos()) * segmentY) / lengthSquared;
+            t = Math.max(0, Math.min(1, t));
+        }
+        double nearestX = previous.getXPos() + segmentX * t;
+        double nearestY = previous.getYPos() + segmentY * t;
+        return Math.abs(nearestX - x) <= 1 && Math.abs(nearestY - y) <= 1;
+    }
+
+    public List<GridNode> getPath() {
+        return path;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,15 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.List;
+
+// A search algorithm that Grid.findPath can delegate to
+public interface PathSearch {
+    // Returns the nodes from start to goal, or an empty list if there is no path
+    List<GridNode> findPath(int startX, int startY, int goalX, int goalY);
+
+    // Number of nodes expanded by the most recent search
+    int getNodesExpanded();
+
+    // Most nodes the open set held at once during the most recent search
+    int getPeakOpenSetSize();
+}
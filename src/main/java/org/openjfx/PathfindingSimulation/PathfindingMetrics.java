@@ -0,0 +1,194 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide counters and histograms for searches, replans, simulation steps and
+// frames. Recording is a handful of LongAdder and histogram updates, cheap enough to
+// leave on everywhere. Applications that want the numbers over JMX call register, which
+// starts the platform MBeanServer, so library use and benchmarks never pay for it.
+public final class PathfindingMetrics implements PathfindingMetricsMBean {
+    static final String OBJECT_NAME = "org.openjfx.PathfindingSimulation:type=PathfindingMetrics";
+
+    private static final PathfindingMetrics INSTANCE = new PathfindingMetrics();
+    private static boolean registered;
+
+    private final LongAdder nodesExpanded = new LongAdder();
+    private final LongAccumulator peakOpenSetSize = new LongAccumulator(Math::max, 0);
+    private final Histogram searchLatency = new Histogram();
+    private final LongAdder replans = new LongAdder();
+    private final Histogram replansPerAgent = new Histogram();
+    private final Histogram stepTime = new Histogram();
+    private final Histogram frameTime = new Histogram();
+    private final Histogram renderTime = new Histogram();
+
+    // Searches-per-second sampling window, guarded by this object's lock
+    private long windowStart = System.nanoTime();
+    private long windowStartCount;
+    private double searchesPerSecond;
+
+    private PathfindingMetrics() {
+    }
+
+    public static PathfindingMetrics get() {
+        return INSTANCE;
+    }
+
+    // Exports the metrics as a platform MBean under OBJECT_NAME; later calls do nothing
+    public static synchronized void register() {
+        if (registered) return;
+
+        registered = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // Metrics are still recorded, just not exported
+        }
+    }
+
+    void recordSearch(long latencyNanos, int expanded, int peakOpenSet) {
+        searchLatency.record(latencyNanos);
+        nodesExpanded.add(expanded);
+        peakOpenSetSize.accumulate(peakOpenSet);
+    }
+
+    void recordReplan() {
+        replans.increment();
+    }
+
+    // Called once an agent's episode is over, with the replans it needed
+    void recordEpisodeReplans(int count) {
+        replansPerAgent.record(count);
+    }
+
+    void recordStep(long nanos) {
+        stepTime.record(nanos);
+    }
+
+    void recordFrame(long intervalNanos, long renderNanos) {
+        frameTime.record(intervalNanos);
+        renderTime.record(renderNanos);
+    }
+
+    @Override
+    public long getSearchCount() {
+        return searchLatency.getCount();
+    }
+
+    @Override
+    public synchronized double getSearchesPerSecond() {
+        long now = System.nanoTime();
+        if (now - windowStart >= 1_000_000_000L) {
+            long count = searchLatency.getCount();
+            searchesPerSecond = (count - windowStartCount) * 1e9 / (now - windowStart);
+            windowStart = now;
+            windowStartCount = count;
+        }
+        return searchesPerSecond;
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodesExpanded.sum();
+    }
+
+    @Override
+    public double getMeanNodesExpanded() {
+        long count = searchLatency.getCount();
+        return count == 0 ? 0 : (double) nodesExpanded.sum() / count;
+    }
+
+    @Override
+    public long getPeakOpenSetSize() {
+        return peakOpenSetSize.get();
+    }
+
+    @Override
+    public double getSearchLatencyP50() {
+        return searchLatency.getValueAtPercentile(50) / 1e3;
+    }
+
+    @Override
+    public double getSearchLatencyP99() {
+        return searchLatency.getValueAtPercentile(99) / 1e3;
+    }
+
+    @Override
+    public double getSearchLatencyP999() {
+        return searchLatency.getValueAtPercentile(99.9) / 1e3;
+    }
+
+    @Override
+    public double getSearchLatencyMax() {
+        return searchLatency.getMax() / 1e3;
+    }
+
+    @Override
+    public long getReplanCount() {
+        return replans.sum();
+    }
+
+    @Override
+    public double getMeanReplansPerAgent() {
+        return replansPerAgent.getMean();
+    }
+
+    @Override
+    public long getReplansPerAgentP99() {
+        return replansPerAgent.getValueAtPercentile(99);
+    }
+
+    @Override
+    public double getStepTimeP50() {
+        return stepTime.getValueAtPercentile(50) / 1e3;
+    }
+
+    @Override
+    public double getStepTimeP99() {
+        return stepTime.getValueAtPercentile(99) / 1e3;
+    }
+
+    @Override
+    public double getStepTimeMax() {
+        return stepTime.getMax() / 1e3;
+    }
+
+    @Override
+    public double getFrameTimeP50Millis() {
+        return frameTime.getValueAtPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double getFrameTimeP99Millis() {
+        return frameTime.getValueAtPercentile(99) / 1e6;
+    }
+
+    @Override
+    public double getFrameTimeMaxMillis() {
+        return frameTime.getMax() / 1e6;
+    }
+
+    @Override
+    public double getRenderTimeP99() {
+        return renderTime.getValueAtPercentile(99) / 1e3;
+    }
+
+    @Override
+    public synchronized void reset() {
+        nodesExpanded.reset();
+        peakOpenSetSize.reset();
+        searchLatency.reset();
+        replans.reset();
+        replansPerAgent.reset();
+        stepTime.reset();
+        frameTime.reset();
+        renderTime.reset();
+        windowStart = System.nanoTime();
+        windowStartCount = 0;
+        searchesPerSecond = 0;
+    }
+}
@@ -0,0 +1,51 @@
+package org.openjfx.PathfindingSimulation;
+
+// Management interface of PathfindingMetrics, as shown in JConsole or any JMX client.
+// Times are in microseconds unless the name says otherwise.
+public interface PathfindingMetricsMBean {
+    long getSearchCount();
+
+    // Over the last sampling window of at least a second
+    double getSearchesPerSecond();
+
+    long getNodesExpanded();
+
+    double getMeanNodesExpanded();
+
+    // Largest open set any single search has needed
+    long getPeakOpenSetSize();
+
+    double getSearchLatencyP50();
+
+    double getSearchLatencyP99();
+
+    double getSearchLatencyP999();
+
+    double getSearchLatencyMax();
+
+    long getReplanCount();
+
+    // Replans each agent needed over one episode
+    double getMeanReplansPerAgent();
+
+    long getReplansPerAgentP99();
+
+    // Simulation steps, timed on a sample of them
+    double getStepTimeP50();
+
+    double getStepTimeP99();
+
+    double getStepTimeMax();
+
+    // Time between frames drawn by the window, in milliseconds
+    double getFrameTimeP50Millis();
+
+    double getFrameTimeP99Millis();
+
+    double getFrameTimeMaxMillis();
+
+    // Time spent drawing a frame
+    double getRenderTimeP99();
+
+    void reset();
+}
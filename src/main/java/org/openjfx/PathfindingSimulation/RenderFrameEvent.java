@@ -0,0 +1,24 @@
+package org.openjfx.PathfindingSimulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Flight Recorder event for one drawn frame, timed over Field.render. Off unless a
+// recording's settings enable it.
+@Name("org.openjfx.PathfindingSimulation.RenderFrame")
+@Label("Render Frame")
+@Category("Pathfinding")
+@Description("One frame drawn by the AnimationTimer")
+@Enabled(false)
+@StackTrace(false)
+final class RenderFrameEvent extends jdk.jfr.Event {
+    @Label("Frame Interval")
+    @Description("Time since the previous frame began, 0 for the first frame")
+    @Timespan(Timespan.NANOSECONDS)
+    long interval;
+}
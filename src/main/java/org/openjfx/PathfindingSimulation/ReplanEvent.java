@@ -0,0 +1,32 @@
+package org.openjfx.PathfindingSimulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event for an agent planning a new path mid-episode, timed over the
+// search and smoothing. Off unless a recording's settings enable it.
+@Name("org.openjfx.PathfindingSimulation.Replan")
+@Label("Replan")
+@Category("Pathfinding")
+@Description("An agent planning a new path during an episode")
+@Enabled(false)
+@StackTrace(false)
+final class ReplanEvent extends jdk.jfr.Event {
+    static final String DRIFTED = "Drifted off path";
+    static final String BLOCKED = "Path blocked";
+    static final String FINISHED = "Path finished";
+
+    @Label("Reason")
+    String reason;
+
+    @Label("Replans This Episode")
+    int episodeReplans;
+
+    @Label("Path Length")
+    @Description("Waypoints in the new path, 0 if no path was found")
+    int pathLength;
+}
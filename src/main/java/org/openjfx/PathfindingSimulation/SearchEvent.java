@@ -0,0 +1,44 @@
+package org.openjfx.PathfindingSimulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event for one path query, from Grid.findPath or a D* Lite planner.
+// Off unless a recording's settings enable it, and then only a few field writes per query.
+@Name("org.openjfx.PathfindingSimulation.Search")
+@Label("Path Search")
+@Category("Pathfinding")
+@Description("A path query, timed from the query to its result")
+@Enabled(false)
+@StackTrace(false)
+final class SearchEvent extends jdk.jfr.Event {
+    @Label("Search Mode")
+    String mode;
+
+    @Label("Start X")
+    int startX;
+
+    @Label("Start Y")
+    int startY;
+
+    @Label("Goal X")
+    int goalX;
+
+    @Label("Goal Y")
+    int goalY;
+
+    @Label("Path Length")
+    @Description("Cells or waypoints in the result, 0 if no path was found")
+    int pathLength;
+
+    @Label("Nodes Expanded")
+    int nodesExpanded;
+
+    @Label("Rejected")
+    @Description("Start and goal were in separate regions, so no search ran")
+    boolean rejected;
+}
@@ -0,0 +1,16 @@
+package org.openjfx.PathfindingSimulation;
+
+// Search algorithms available behind Grid.findPath
+public enum SearchMode {
+    // Plain A* over the 8 neighbors of each cell
+    ASTAR,
+    // Jump Point Search, scanning for jump points at query time
+    JPS,
+    // Jump Point Search over precomputed jump distances
+    JPS_PLUS,
+    // HPA* over cluster entrances, refined one cluster at a time. Paths are near-optimal,
+    // not shortest: routes are forced through entrance cells and each leg is refined alone.
+    HIERARCHICAL,
+    // Lazy Theta*, returning only the turning points of an any-angle path
+    THETA_STAR
+}
@@ -0,0 +1,369 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Game state and rules without any JavaFX types, so episodes can run headless as fast
+// as the CPU allows. Field draws this model, and step() advances it by one frame.
+public class Simulation {
+	// Size of target/goal
+	static final int TARGET_BORDER_WIDTH = 3;
+
+	// Candidate positions drawn per obstacle before the map settles for fewer obstacles
+	private static final int PLACEMENT_ATTEMPTS = 20;
+
+	// One step in this many is timed. A step takes well under a microsecond, so reading
+	// the clock around every one would cost a good share of it.
+	private static final int STEP_SAMPLE_INTERVAL = 16;
+
+	// Variable representations
+	static final int NONE = 0;
+	static final int LOSE = 1;
+	static final int WIN = 2;
+
+	private final MapConfig config;
+	private final Random rand;
+
+	// Cached from the config for the hot paths
+	private final int gridSquareSize;
+	private final int numXSquares;
+	private final int numYSquares;
+
+	private final Agent agent;
+	private final List<Obstacle> obstacles = new ArrayList<>();
+	private int targetXGridPos;
+	private int targetYGridPos;
+
+	// Grid representation for pathfinding
+	private final Grid grid;
+
+	// Incremental planner that repairs its previous search instead of starting over,
+	// or null when the agent follows the grid's flow field for the target instead
+	private final DStarLite planner;
+	private FlowField flowField;
+	private List<GridNode> path = new ArrayList<>();
+
+	// Position along the current path
+	private final PathCursor cursor = new PathCursor();
+
+	// Replans in the current episode, or -1 before the first one
+	private int episodeReplans = -1;
+
+	private final PathfindingMetrics metrics = PathfindingMetrics.get();
+	private int stepsUntilSample;
+
+	public Simulation() {
+		this(new MapConfig(), new Random());
+	}
+
+	public Simulation(long seed) {
+		this(new MapConfig(), new Random(seed));
+	}
+
+	public Simulation(MapConfig config, Random rand) {
+		config.validate();
+		this.config = config;
+		this.rand = rand;
+		this.gridSquareSize = config.getGridSquareSize();
+		this.numXSquares = config.getGridWidth();
+		this.numYSquares = config.getGridHeight();
+
+		this.agent = new Agent(gridSquareSize);
+		this.grid = new Grid(numXSquares, numYSquares);
+		this.planner = config.isFlowField() ? null : new DStarLite(grid);
+	}
+
+	// Lays out a new field in one pass and plans the first path. The target and agent are
+	// placed first and obstacles are kept clear of them, so every layout can be played.
+	public void reset() {
+		if (episodeReplans >= 0) {
+			metrics.recordEpisodeReplans(episodeReplans);
+		}
+		episodeReplans = 0;
+
+		LevelResetEvent event = null;
+		if (FlightEvents.isLevelResetEnabled()) {
+			event = new LevelResetEvent();
+			event.begin();
+		}
+		grid.clear();
+		initializeTarget();
+		initializeAgent();
+		int numObstacles = rand.nextInt(config.getMaxObstacles() - config.getMinObstacles() + 1) + config.getMinObstacles();
+		long attempts = initializeObstacles(numObstacles);
+		if (event != null) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.attempts = attempts;
+				event.obstaclesWanted = numObstacles;
+				event.obstaclesPlaced = obstacles.size();
+				event.commit();
+			}
+		}
+
+		updatePath();
+	}
+
+	// Advances one frame along the planned path and reports any collision
+	public int step() {
+		boolean timed = --stepsUntilSample <= 0;
+		long startTime = timed ? System.nanoTime() : 0;
+
+		int result = updateComputerPosition() ? checkCollision() : NONE;
+
+		if (timed) {
+			stepsUntilSample = STEP_SAMPLE_INTERVAL;
+			metrics.recordStep(System.nanoTime() - startTime);
+		}
+		return result;
+	}
+
+	// Dynamically creates the obstacles and marks their cells in the grid. A bounded number
+	// of candidates is drawn, so a crowded map ends up with fewer obstacles rather than
+	// looping. Each obstacle keeps a ring of free cells around it, which keeps every free
+	// cell connected: a route blocked by an obstacle can always go around it through its ring.
+	// Returns the number of candidates drawn.
+	private long initializeObstacles(int numObstacles) {
+		int minObstacleSize = config.getMinObstacleSize();
+		int maxObstacleSize = config.getMaxObstacleSize();
+		long attemptLimit = (long) numObstacles * PLACEMENT_ATTEMPTS;
+		obstacles.clear();
+
+		// Areas around the target and agent that must stay open
+		double reach = getTargetRadius() + TARGET_BORDER_WIDTH / 2.0;
+		double spawnMinX = agent.getMinX() - gridSquareSize;
+		double spawnMinY = agent.getMinY() - gridSquareSize;
+		double spawnSize = (agent.getAgentWidth() - agent.getAgentBorderWidth()) * 3 + agent.getAgentBorderWidth();
+
+		long attempt = 0;
+		for (; attempt < attemptLimit && obstacles.size() < numObstacles; ++attempt) {
+			int obstacleGridSize = rand.nextInt(maxObstacleSize - minObstacleSize + 1) + minObstacleSize;
+
+			// Keeps the obstacle and its ring off the outer squares, where the agent is out of bounds
+			int xGridPos = rand.nextInt(numXSquares - obstacleGridSize - 4) + 2;
+			int yGridPos = rand.nextInt(numYSquares - obstacleGridSize - 4) + 2;
+
+			double minX = xGridPos * gridSquareSize;
+			double minY = yGridPos * gridSquareSize;
+			double maxX = minX + obstacleGridSize * gridSquareSize;
+			double maxY = minY + obstacleGridSize * gridSquareSize;
+			if (intersects(minX, minY, maxX, maxY, getTargetCenterX() - reach, getTargetCenterY() - reach,
+					getTargetCenterX() + reach, getTargetCenterY() + reach)
+					|| intersects(minX, minY, maxX, maxY, spawnMinX, spawnMinY, spawnMinX + spawnSize, spawnMinY + spawnSize)) {
+				continue;
+			}
+
+			// Obstacles cover exactly their cells, so checking the grid finds any other obstacle
+			// in the ring without comparing against every obstacle placed so far
+			if (isAreaClear(xGridPos - 1, yGridPos - 1, obstacleGridSize + 2)) {
+				obstacles.add(new Obstacle(xGridPos, yGridPos, obstacleGridSize));
+				for (int i = 0; i < obstacleGridSize; ++i) {
+					for (int j = 0; j < obstacleGridSize; ++j) {
+						grid.setObstacle(xGridPos + i, yGridPos + j, true);
+					}
+				}
+			}
+		}
+		return attempt;
+	}
+
+	private boolean isAreaClear(int xGridPos, int yGridPos, int gridSize) {
+		for (int i = 0; i < gridSize; ++i) {
+			for (int j = 0; j < gridSize; ++j) {
+				if (!grid.isWalkable(xGridPos + i, yGridPos + j)) return false;
+			}
+		}
+		return true;
+	}
+
+	// Randomly places the target near the top of the field
+	private void initializeTarget() {
+		targetXGridPos = rand.nextInt(numXSquares - 10) + 5;
+		targetYGridPos = rand.nextInt(10) + 2;
+	}
+
+	// Randomly places the agent near the bottom of the field
+	private void initializeAgent() {
+		agent.spawn(rand.nextInt(numXSquares - 10) + 5, rand.nextInt(10) + (numYSquares - 12), gridSquareSize);
+	}
+
+	public boolean updateComputerPosition() {
+		if (cursor.isFinished()) {
+			return false; // No path to follow
+		}
+
+		// Calculate the target position in pixels
+		GridNode waypoint = cursor.current();
+		double targetX = waypoint.getXPos() * gridSquareSize + agent.getAgentBorderWidth();
+		double targetY = waypoint.getYPos() * gridSquareSize + agent.getAgentBorderWidth();
+
+		double currentX = agent.getX();
+		double currentY = agent.getY();
+
+		// Replan from wherever the agent is if it has drifted off the path
+		int currentXGridPos = (int) ((currentX + agent.getAgentWidth() / 2) / gridSquareSize);
+		int currentYGridPos = (int) ((currentY + agent.getAgentWidth() / 2) / gridSquareSize);
+		if (!cursor.isOnCorridor(currentXGridPos, currentYGridPos)) {
+			agent.setXGridPos(currentXGridPos);
+			agent.setYGridPos(currentYGridPos);
+			replan(ReplanEvent.DRIFTED);
+			return true;
+		}
+
+		// Check if reached the current target node within a threshold
+		boolean hasReachedX = Math.abs(currentX - targetX) <= 1;
+		boolean hasReachedY = Math.abs(currentY - targetY) <= 1;
+
+		// Steer straight at the waypoint, which may be many cells away on a smoothed path
+		agent.moveToward(targetX - currentX, targetY - currentY);
+
+		if (hasReachedX && hasReachedY) {
+			// Move to the next node, only searching again if the path is no longer usable
+			agent.setXGridPos(waypoint.getXPos());
+			agent.setYGridPos(waypoint.getYPos());
+			cursor.advance();
+
+			if (cursor.isFinished()) {
+				replan(ReplanEvent.FINISHED);
+			} else if (cursor.isStale(grid)) {
+				replan(ReplanEvent.BLOCKED);
+			}
+		}
+
+		return true; // Continuing movement
+	}
+
+	// Plans over cells, then cuts the corners the agent's body can clear in a straight line
+	public void updatePath() {
+		GridNode agentPos = new GridNode(agent.getXGridPos(), agent.getYGridPos(), true);
+		path = grid.smoothPath(findCellPath(agentPos), getPathClearance());
+		cursor.reset(path, grid.getVersion());
+	}
+
+	// With a flow field, replanning is a walk down the field the grid keeps for the target,
+	// shared with anyone else heading there, rather than a search
+	private List<GridNode> findCellPath(GridNode agentPos) {
+		if (planner != null) {
+			return planner.findPath(agentPos, getGoalNode());
+		}
+
+		if (flowField == null || flowField.isStale() || flowField.getGoalX() != targetXGridPos
+				|| flowField.getGoalY() != targetYGridPos) {
+			flowField = grid.getFlowField(getGoalNode());
+		}
+		return flowField.pathFrom(agentPos.getXPos(), agentPos.getYPos());
+	}
+
+	private void replan(String reason) {
+		++episodeReplans;
+		metrics.recordReplan();
+
+		if (!FlightEvents.isReplanEnabled()) {
+			updatePath();
+			return;
+		}
+
+		ReplanEvent event = new ReplanEvent();
+		event.begin();
+		updatePath();
+		event.end();
+		if (event.shouldCommit()) {
+			event.reason = reason;
+			event.episodeReplans = episodeReplans;
+			event.pathLength = path.size();
+			event.commit();
+		}
+	}
+
+	// Half the agent's drawn width plus a pixel of slack, in cells. It stays under half a
+	// cell, so a straight step between neighboring cells never counts the cells beside it.
+	private double getPathClearance() {
+		return (gridSquareSize - 1) / (2.0 * gridSquareSize);
+	}
+
+	public int checkCollision() {
+		boolean overlaps = touchesObstacle(agent.getMinX(), agent.getMinY(), agent.getMaxX(), agent.getMaxY());
+
+		if (agent.getX() >= config.getWindowWidth() - (2 * gridSquareSize) || agent.getX() <= gridSquareSize) {
+			overlaps = true;
+		} else if (agent.getY() >= config.getWindowHeight() - (2 * gridSquareSize) || agent.getY() <= gridSquareSize) {
+			overlaps = true;
+		}
+
+		double reach = getTargetRadius() + TARGET_BORDER_WIDTH / 2.0;
+		if (overlaps) {
+			return LOSE;
+		} else if (intersects(agent.getMinX(), agent.getMinY(), agent.getMaxX(), agent.getMaxY(),
+				getTargetCenterX() - reach, getTargetCenterY() - reach,
+				getTargetCenterX() + reach, getTargetCenterY() + reach)) {
+			return WIN;
+		}
+
+		return NONE;
+	}
+
+	public void clearMomentum() {
+		agent.clearMomentum();
+	}
+
+	// True if the box touches any obstacle. Obstacles cover exactly their grid cells and are
+	// the only blocked cells in the grid, so only the few cells under the box are checked
+	// and the cost does not grow with the number of obstacles.
+	private boolean touchesObstacle(double minX, double minY, double maxX, double maxY) {
+		// A cell's bounds include its edges, so a box ending exactly on a cell boundary touches both cells
+		int minXGridPos = Math.max(0, (int) Math.ceil(minX / gridSquareSize) - 1);
+		int minYGridPos = Math.max(0, (int) Math.ceil(minY / gridSquareSize) - 1);
+		int maxXGridPos = Math.min(numXSquares - 1, (int) Math.floor(maxX / gridSquareSize));
+		int maxYGridPos = Math.min(numYSquares - 1, (int) Math.floor(maxY / gridSquareSize));
+
+		for (int y = minYGridPos; y <= maxYGridPos; ++y) {
+			for (int x = minXGridPos; x <= maxXGridPos; ++x) {
+				if (!grid.isWalkable(x, y)) return true;
+			}
+		}
+		return false;
+	}
+
+	// Boxes that only touch along an edge still count, as with JavaFX bounds
+	private static boolean intersects(double minX, double minY, double maxX, double maxY,
+			double otherMinX, double otherMinY, double otherMaxX, double otherMaxY) {
+		return otherMaxX >= minX && otherMaxY >= minY && otherMinX <= maxX && otherMinY <= maxY;
+	}
+
+	public MapConfig getConfig() {
+		return config;
+	}
+
+	public double getTargetRadius() {
+		return (gridSquareSize / 2) - (TARGET_BORDER_WIDTH);
+	}
+
+	public Agent getAgent() {
+		return agent;
+	}
+
+	public Grid getGrid() {
+		return grid;
+	}
+
+	public List<Obstacle> getObstacles() {
+		return obstacles;
+	}
+
+	public List<GridNode> getPath() {
+		return path;
+	}
+
+	public GridNode getGoalNode() {
+		return grid.getNode(targetXGridPos, targetYGridPos);
+	}
+
+	public double getTargetCenterX() {
+		return gridSquareSize * targetXGridPos + gridSquareSize / 2;
+	}
+
+	public double getTargetCenterY() {
+		return gridSquareSize * targetYGridPos + gridSquareSize / 2;
+	}
+}
@@ -0,0 +1,241 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a Simulation on its own thread at a fixed tick rate, independent of the display's
+// frame rate. Each tick is one Simulation.step(), and a finished episode is reset on the
+// spot. After every tick an immutable Frame is published for views to draw, holding the
+// agent's position before and after the tick so they can interpolate between the two.
+//
+// If ticks fall behind, from a slow replan or a speed the CPU cannot keep up with, the
+// loop runs ticks back to back to catch up on at most MAX_CATCH_UP_TICKS ticks' worth of
+// real time. Anything owed beyond that is skipped, so the simulation slows down instead
+// of falling further and further behind.
+public class SimulationLoop {
+    static final double DEFAULT_TICK_RATE = 60;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final Simulation simulation;
+    private final long tickNanos;
+    private volatile double speed = 1;
+
+    // Work from other threads, run on the loop thread before the next tick
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile Frame frame;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    // Written by the loop thread only
+    private Layout layout;
+    private volatile long ticks;
+    private volatile long skippedTicks;
+    private volatile long wins;
+    private volatile long losses;
+
+    // Obstacles, walkability and goal of one episode
+    static final class Layout {
+        final long episode;
+        final List<Obstacle> obstacles;
+        final GridSnapshot snapshot;
+        final double targetCenterX;
+        final double targetCenterY;
+
+        Layout(long episode, List<Obstacle> obstacles, GridSnapshot snapshot, double targetCenterX,
+                double targetCenterY) {
+            this.episode = episode;
+            this.obstacles = obstacles;
+            this.snapshot = snapshot;
+            this.targetCenterX = targetCenterX;
+            this.targetCenterY = targetCenterY;
+        }
+    }
+
+    // Agent state after a tick, along with where it was before the tick
+    static final class Frame {
+        final Layout layout;
+        final double previousX;
+        final double previousY;
+        final double x;
+        final double y;
+        final List<GridNode> path;
+        final long publishedAt;
+
+        Frame(Layout layout, double previousX, double previousY, double x, double y, List<GridNode> path, long publishedAt) {
+            this.layout = layout;
+            this.previousX = previousX;
+            this.previousY = previousY;
+            this.x = x;
+            this.y = y;
+            this.path = path;
+            this.publishedAt = publishedAt;
+        }
+    }
+
+    public SimulationLoop(Simulation simulation) {
+        this(simulation, DEFAULT_TICK_RATE);
+    }
+
+    public SimulationLoop(Simulation simulation, double tickRate) {
+        if (!(tickRate > 0)) {
+            throw new IllegalArgumentException("tickRate must be positive, got " + tickRate);
+        }
+        this.simulation = simulation;
+        this.tickNanos = Math.max(1, Math.round(1e9 / tickRate));
+    }
+
+    // Resets the simulation and starts ticking on a new daemon thread
+    public synchronized void start() {
+        if (running) return;
+
+        running = true;
+        thread = new Thread(this::run, "simulation-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    // Runs the task on the loop thread before the next tick, the only safe way to touch the simulation
+    public void execute(Runnable task) {
+        tasks.add(task);
+    }
+
+    private void run() {
+        simulation.reset();
+        publishLayout();
+        publishFrame(simulation.getAgent().getX(), simulation.getAgent().getY());
+
+        long previousTime = System.nanoTime();
+        double owed = 0;
+        // A loop that was stopped exits even if a new one has started since
+        while (running && thread == Thread.currentThread()) {
+            long now = System.nanoTime();
+            owed += (now - previousTime) * speed;
+            previousTime = now;
+
+            double maxOwed = MAX_CATCH_UP_TICKS * tickNanos * speed;
+            if (owed > maxOwed) {
+                skippedTicks += (long) ((owed - maxOwed) / tickNanos);
+                owed = maxOwed;
+            }
+
+            while (owed >= tickNanos && running) {
+                tick();
+                owed -= tickNanos;
+            }
+
+            long wait = (long) ((tickNanos - owed) / speed);
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    private void tick() {
+        TickEvent event = null;
+        if (FlightEvents.isTickEnabled()) {
+            event = new TickEvent();
+            event.begin();
+        }
+
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+
+        Agent agent = simulation.getAgent();
+        double previousX = agent.getX();
+        double previousY = agent.getY();
+        int result = simulation.step();
+        ++ticks;
+
+        if (result != Simulation.NONE) {
+            if (result == Simulation.WIN) {
+                ++wins;
+            } else {
+                ++losses;
+            }
+            simulation.clearMomentum();
+            simulation.reset();
+            publishLayout();
+
+            // Nothing to interpolate from across a reset
+            previousX = agent.getX();
+            previousY = agent.getY();
+        }
+        publishFrame(previousX, previousY);
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.tick = ticks;
+                event.result = result;
+                event.commit();
+            }
+        }
+    }
+
+    private void publishLayout() {
+        long episode = layout == null ? 0 : layout.episode + 1;
+        // Planning the first path already took this version's snapshot, so this costs nothing
+        layout = new Layout(episode, Collections.unmodifiableList(new ArrayList<>(simulation.getObstacles())),
+                simulation.getGrid().snapshot(), simulation.getTargetCenterX(), simulation.getTargetCenterY());
+    }
+
+    private void publishFrame(double previousX, double previousY) {
+        Agent agent = simulation.getAgent();
+        frame = new Frame(layout, previousX, previousY, agent.getX(), agent.getY(), simulation.getPath(), System.nanoTime());
+    }
+
+    // Latest published frame, or null before the loop has started
+    Frame getFrame() {
+        return frame;
+    }
+
+    // Real time between ticks at the current speed
+    public double getTickIntervalNanos() {
+        return tickNanos / speed;
+    }
+
+    // Multiple of real time to run at, such as 10 for ten times as fast
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive, got " + speed);
+        }
+        this.speed = speed;
+        LockSupport.unpark(thread);
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // Ticks dropped because the loop could not catch up
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+}
@@ -0,0 +1,92 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Lazy Theta*, an any-angle A*. A successor is opened with its parent's parent as its own
+// parent whenever that shortcut might be in sight, measured by straight-line distance. The
+// line of sight is only checked when the node leaves the open set; if it turns out to be
+// blocked, the node falls back to its best expanded neighbor. Paths are the turning points
+// only, with a straight, unobstructed segment between each pair.
+public class ThetaStarSearch extends AStarSearch {
+    // Costs here are in hundredths of a cell rather than the grid's units. Segment lengths
+    // round up and the estimate rounds down, so the estimate never exceeds the cost of any
+    // path and stays admissible, and the finer unit keeps the rounding from skewing paths.
+    private static final int COST_SCALE = 100;
+    private static final int STRAIGHT_STEP = COST_SCALE;
+    private static final int DIAGONAL_STEP = (int) Math.ceil(COST_SCALE * Math.sqrt(2));
+
+    public ThetaStarSearch(Grid grid) {
+        super(grid);
+    }
+
+    @Override
+    protected int heuristic(int cell, int goalX, int goalY) {
+        return (int) Math.floor(COST_SCALE * Math.hypot(goalX - cell % width, goalY - cell / width));
+    }
+
+    @Override
+    protected void expand(int current, int goalX, int goalY) {
+        int currentX = current % width;
+        int currentY = current / width;
+        int from = parent[current] != -1 ? parent[current] : current;
+        int fromX = from % width;
+        int fromY = from / width;
+
+        int mask = snapshot.neighborMask(currentX, currentY);
+        for (int dir = 0; dir < 8; ++dir) {
+            if ((mask & (1 << dir)) == 0) continue;
+
+            int newX = currentX + DIR_X[dir];
+            int newY = currentY + DIR_Y[dir];
+            if (!isWalkable(newX, newY)) continue;
+
+            relaxVia(from, newY * width + newX, gCost[from] + segmentCost(fromX, fromY, newX, newY), goalX, goalY);
+        }
+    }
+
+    // Checks the shortcut taken when the node was opened, and repairs it if it is blocked
+    @Override
+    protected void settle(int current) {
+        int from = parent[current];
+        if (from == -1) return;
+
+        int currentX = current % width;
+        int currentY = current / width;
+        if (LineOfSight.isClear(snapshot, from % width, from / width, currentX, currentY, 0)) return;
+
+        // The node that opened this one is an expanded neighbor, so one is always found
+        int best = Integer.MAX_VALUE;
+        int mask = snapshot.neighborMask(currentX, currentY);
+        for (int dir = 0; dir < 8; ++dir) {
+            if ((mask & (1 << dir)) == 0) continue;
+
+            int neighbor = (currentY + DIR_Y[dir]) * width + currentX + DIR_X[dir];
+            if (!isClosed(neighbor)) continue;
+
+            int cost = gCost[neighbor] + (dir < 4 ? STRAIGHT_STEP : DIAGONAL_STEP);
+            if (cost < best) {
+                best = cost;
+                parent[current] = neighbor;
+            }
+        }
+        gCost[current] = best;
+    }
+
+    // Turning points only; the cells between them are not filled in
+    @Override
+    protected List<GridNode> reconstructPath(int goal) {
+        List<GridNode> path = new ArrayList<>();
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            path.add(grid.getNode(cell % width, cell / width));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Straight-line length of a segment, rounded up
+    private static int segmentCost(int startX, int startY, int destinationX, int destinationY) {
+        return (int) Math.ceil(COST_SCALE * Math.hypot(destinationX - startX, destinationY - startY));
+    }
+}
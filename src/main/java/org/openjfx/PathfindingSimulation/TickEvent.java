@@ -0,0 +1,25 @@
+package org.openjfx.PathfindingSimulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event for one SimulationLoop tick, timed over queued tasks, the step
+// and any reset it triggered. Off unless a recording's settings enable it.
+@Name("org.openjfx.PathfindingSimulation.Tick")
+@Label("Simulation Tick")
+@Category("Pathfinding")
+@Description("One fixed-timestep simulation tick")
+@Enabled(false)
+@StackTrace(false)
+final class TickEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    long tick;
+
+    @Label("Result")
+    @Description("NONE, WIN or LOSE, as returned by Simulation.step")
+    int result;
+}
@@ -0,0 +1,157 @@
+package org.openjfx.PathfindingSimulation;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+// Walkability packed one bit per cell in row-major order, with a one-cell border of
+// blocked cells around the grid. Any cell from -1 to width/height can be read without
+// a bounds check, so the neighbors of every grid cell are always safe to test.
+// The words either live in an array or are read straight from a mapped map file
+// (see MapFile). A mapped bitmap is copied into an array the first time it is edited.
+final class WalkabilityBitmap {
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+
+    // Exactly one of these is set
+    private long[] words;
+    private LongBuffer mapped;
+
+    WalkabilityBitmap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = wordsPerRow(width);
+        this.words = new long[wordCount(width, height)];
+    }
+
+    // Reads the words from the buffer without copying; the buffer must not change afterward
+    WalkabilityBitmap(int width, int height, LongBuffer mapped) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = wordsPerRow(width);
+        this.mapped = mapped;
+    }
+
+    private WalkabilityBitmap(WalkabilityBitmap other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.wordsPerRow = other.wordsPerRow;
+        if (other.words != null) {
+            this.words = other.words.clone();
+        } else {
+            // Mapped words are never written, so copies can share them
+            this.mapped = other.mapped.duplicate();
+        }
+    }
+
+    static int wordsPerRow(int width) {
+        return (width + 2 + 63) >>> 6;
+    }
+
+    static int wordCount(int width, int height) {
+        return wordsPerRow(width) * (height + 2);
+    }
+
+    WalkabilityBitmap copy() {
+        return new WalkabilityBitmap(this);
+    }
+
+    // Valid for -1 <= x <= width and -1 <= y <= height
+    boolean get(int x, int y) {
+        int column = x + 1;
+        return (word((y + 1) * wordsPerRow + (column >>> 6)) & (1L << column)) != 0;
+    }
+
+    void set(int x, int y, boolean walkable) {
+        materialize();
+        int column = x + 1;
+        int word = (y + 1) * wordsPerRow + (column >>> 6);
+        if (walkable) {
+            words[word] |= 1L << column;
+        } else {
+            words[word] &= ~(1L << column);
+        }
+    }
+
+    // Sets every cell inside the border, leaving the border blocked
+    void fill(boolean walkable) {
+        if (words == null) {
+            // Every word is about to be overwritten, so skip reading the mapping
+            words = new long[wordCount(width, height)];
+            mapped = null;
+        }
+        Arrays.fill(words, 0);
+        if (!walkable) return;
+
+        for (int row = 1; row <= height; ++row) {
+            int base = row * wordsPerRow;
+            for (int column = 1; column <= width; ) {
+                int offset = column & 63;
+                int count = Math.min(64 - offset, width + 1 - column);
+                long mask = count == 64 ? -1L : ((1L << count) - 1) << offset;
+                words[base + (column >>> 6)] |= mask;
+                column += count;
+            }
+        }
+    }
+
+    // Directions (in AStarSearch.DIR_X/DIR_Y order) a unit can step to from (x, y).
+    // Diagonals are only set when both orthogonal cells are free, so corners are never cut.
+    int neighborMask(int x, int y) {
+        // Bit 0 is x - 1, bit 1 is x and bit 2 is x + 1
+        int above = threeCells(y, x);
+        int row = threeCells(y + 1, x);
+        int below = threeCells(y + 2, x);
+
+        int north = (above >>> 1) & 1;
+        int east = (row >>> 2) & 1;
+        int south = (below >>> 1) & 1;
+        int west = row & 1;
+        int northEast = (above >>> 2) & north & east;
+        int southEast = (below >>> 2) & south & east;
+        int southWest = below & south & west;
+        int northWest = above & north & west;
+
+        return north | east << 1 | south << 2 | west << 3
+            | northEast << 4 | southEast << 5 | southWest << 6 | northWest << 7;
+    }
+
+    // Bits for padded columns column..column+2 of a padded row
+    private int threeCells(int paddedRow, int column) {
+        int index = paddedRow * wordsPerRow + (column >>> 6);
+        int offset = column & 63;
+        long bits = word(index) >>> offset;
+        if (offset > 61) {
+            bits |= word(index + 1) << (64 - offset);
+        }
+        return (int) bits & 7;
+    }
+
+    long word(int index) {
+        return words != null ? words[index] : mapped.get(index);
+    }
+
+    int wordCount() {
+        return words != null ? words.length : mapped.capacity();
+    }
+
+    // Copies mapped words into an array so they can be edited
+    private void materialize() {
+        if (words == null) {
+            long[] copy = new long[mapped.capacity()];
+            LongBuffer source = mapped.duplicate();
+            source.rewind();
+            source.get(copy);
+            words = copy;
+            mapped = null;
+        }
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,124 @@
+package org.openjfx.PathfindingSimulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// Compares the incrementally maintained labels with a fresh flood fill after random edits
+class ConnectedComponentsTest {
+    @Test
+    void matchesFloodFillAcrossOpenAndCloseEdits() {
+        Random random = new Random(2);
+        for (int trial = 0; trial < 30; ++trial) {
+            int width = 5 + random.nextInt(30);
+            int height = 5 + random.nextInt(30);
+            double density = random.nextDouble() * 0.6;
+            Grid grid = randomGrid(width, height, density, random);
+            ConnectedComponents components = grid.getComponents();
+
+            for (int edit = 0; edit < 1000; ++edit) {
+                if (edit == 500 && trial % 5 == 0) {
+                    grid.clear();
+                }
+                grid.setObstacle(random.nextInt(width), random.nextInt(height), random.nextDouble() < density + 0.2);
+                if (edit % 10 == 0) {
+                    assertMatchesFloodFill(grid, components, random, 100);
+                }
+            }
+        }
+    }
+
+    // Spans several label chunks, querying between edits so chunks are shared and then copied
+    @Test
+    void matchesFloodFillOnGridsSpanningSeveralChunks() {
+        Random random = new Random(3);
+        int width = 300;
+        int height = 260;
+        Grid grid = randomGrid(width, height, 0.3, random);
+        ConnectedComponents components = grid.getComponents();
+
+        for (int edit = 0; edit < 3000; ++edit) {
+            grid.setObstacle(random.nextInt(width), random.nextInt(height), random.nextBoolean());
+            if (random.nextInt(3) == 0) {
+                components.areSeparated(0, 0, width - 1, height - 1);
+            }
+            if (edit % 300 == 0) {
+                assertMatchesFloodFill(grid, components, random, 500);
+            }
+        }
+    }
+
+    @Test
+    void wallSplitsAndGapJoins() {
+        Grid grid = new Grid(50, 40);
+        ConnectedComponents components = grid.getComponents();
+        for (int y = 0; y < 40; ++y) {
+            grid.setObstacle(25, y, true);
+        }
+        assertTrue(components.areSeparated(0, 0, 49, 39));
+
+        grid.setObstacle(25, 20, false);
+        assertFalse(components.areSeparated(0, 0, 49, 39));
+    }
+
+    private static Grid randomGrid(int width, int height, double density, Random random) {
+        Grid grid = new Grid(width, height);
+        for (int i = 0; i < width * height * density; ++i) {
+            grid.setObstacle(random.nextInt(width), random.nextInt(height), true);
+        }
+        return grid;
+    }
+
+    private static void assertMatchesFloodFill(Grid grid, ConnectedComponents components, Random random, int queries) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int[] expected = floodFill(grid);
+        for (int query = 0; query < queries; ++query) {
+            int x1 = random.nextInt(width);
+            int y1 = random.nextInt(height);
+            int x2 = random.nextInt(width);
+            int y2 = random.nextInt(height);
+            int first = expected[y1 * width + x1];
+            int second = expected[y2 * width + x2];
+            boolean separated = first != -1 && second != -1 && first != second;
+            assertEquals(separated, components.areSeparated(x1, y1, x2, y2),
+                    "(" + x1 + ", " + y1 + ") to (" + x2 + ", " + y2 + ")");
+        }
+    }
+
+    // Component of every cell by breadth-first search over straight steps, -1 where blocked
+    private static int[] floodFill(Grid grid) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int[] labels = new int[width * height];
+        Arrays.fill(labels, -1);
+        int[] queue = new int[width * height];
+        int label = 0;
+        for (int start = 0; start < labels.length; ++start) {
+            if (labels[start] != -1 || !grid.isWalkable(start % width, start / width)) continue;
+
+            labels[start] = label;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int cell = queue[head++];
+                for (int dir = 0; dir < 4; ++dir) {
+                    int x = cell % width + AStarSearch.DIR_X[dir];
+                    int y = cell / width + AStarSearch.DIR_Y[dir];
+                    if (grid.isWalkable(x, y) && labels[y * width + x] == -1) {
+                        labels[y * width + x] = label;
+                        queue[tail++] = y * width + x;
+                    }
+                }
+            }
+            ++label;
+        }
+        return labels;
+    }
+}
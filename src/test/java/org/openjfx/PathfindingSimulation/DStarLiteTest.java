@@ -0,0 +1,84 @@
+package org.openjfx.PathfindingSimulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// D* Lite repairs one search across calls, so every replan must still match a fresh A*
+class DStarLiteTest {
+    @Test
+    void replansMatchAStarAsTheStartMovesAndCellsChange() {
+        Random random = new Random(1);
+        for (int trial = 0; trial < 100; ++trial) {
+            int width = 30;
+            int height = 30;
+            Grid grid = PathAssertions.randomGrid(width, height, 0.28, random);
+            DStarLite planner = new DStarLite(grid);
+            AStarSearch reference = new AStarSearch(grid);
+
+            int goalX = random.nextInt(width);
+            int goalY = random.nextInt(height);
+            int startX = random.nextInt(width);
+            int startY = random.nextInt(height);
+            grid.setObstacle(goalX, goalY, false);
+            grid.setObstacle(startX, startY, false);
+
+            for (int replan = 0; replan < 40; ++replan) {
+                List<GridNode> path = planner.findPath(grid.getNode(startX, startY), grid.getNode(goalX, goalY));
+                List<GridNode> expected = reference.findPath(startX, startY, goalX, goalY);
+                String query = "(" + startX + ", " + startY + ") to (" + goalX + ", " + goalY + ")";
+                assertEquals(expected.isEmpty(), path.isEmpty(), query);
+                if (path.size() < 2) break;
+
+                PathAssertions.assertWalkable(grid, path, startX, startY, goalX, goalY);
+                assertEquals(PathAssertions.cost(expected), PathAssertions.cost(path), query);
+
+                // Either follow the path a little way or jump somewhere else entirely
+                if (random.nextInt(3) == 0) {
+                    int x = random.nextInt(width);
+                    int y = random.nextInt(height);
+                    if (grid.isWalkable(x, y)) {
+                        startX = x;
+                        startY = y;
+                    }
+                } else {
+                    GridNode next = path.get(Math.min(path.size() - 1, 1 + random.nextInt(3)));
+                    startX = next.getXPos();
+                    startY = next.getYPos();
+                }
+
+                if (random.nextInt(4) == 0) {
+                    int x = random.nextInt(width);
+                    int y = random.nextInt(height);
+                    if ((x != goalX || y != goalY) && (x != startX || y != startY)) {
+                        grid.setObstacle(x, y, random.nextBoolean());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void newGoalStartsAFreshSearch() {
+        Random random = new Random(4);
+        Grid grid = PathAssertions.randomGrid(40, 40, 0.25, random);
+        DStarLite planner = new DStarLite(grid);
+        AStarSearch reference = new AStarSearch(grid);
+
+        for (int query = 0; query < 100; ++query) {
+            int startX = random.nextInt(40);
+            int startY = random.nextInt(40);
+            int goalX = random.nextInt(40);
+            int goalY = random.nextInt(40);
+            if (!grid.isWalkable(startX, startY)) continue;
+
+            List<GridNode> path = planner.findPath(grid.getNode(startX, startY), grid.getNode(goalX, goalY));
+            List<GridNode> expected = reference.findPath(startX, startY, goalX, goalY);
+            assertEquals(expected.isEmpty(), path.isEmpty());
+            assertEquals(PathAssertions.cost(expected), PathAssertions.cost(path));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.openjfx.PathfindingSimulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// HPA* paths may be longer than the shortest, but must exist exactly when A* finds one
+class HierarchicalSearchTest {
+    // Mean ratio of HPA* path cost to the shortest on these maps, which runs about 1.06
+    private static final double MAX_MEAN_STRETCH = 1.1;
+
+    @Test
+    void findsValidPathsWheneverAStarDoes() {
+        Random random = new Random(5);
+        double stretch = 0;
+        int paths = 0;
+        for (int trial = 0; trial < 30; ++trial) {
+            int width = 20 + random.nextInt(80);
+            int height = 20 + random.nextInt(80);
+            Grid grid = PathAssertions.randomGrid(width, height, random.nextDouble() * 0.35, random);
+            HierarchicalSearch search = new HierarchicalSearch(grid);
+            AStarSearch reference = new AStarSearch(grid);
+
+            for (int query = 0; query < 100; ++query) {
+                int startX = random.nextInt(width);
+                int startY = random.nextInt(height);
+                int goalX = random.nextInt(width);
+                int goalY = random.nextInt(height);
+                if (!grid.isWalkable(startX, startY)) continue;
+
+                List<GridNode> expected = reference.findPath(startX, startY, goalX, goalY);
+                List<GridNode> path = search.findPath(startX, startY, goalX, goalY);
+                String description = "(" + startX + ", " + startY + ") to (" + goalX + ", " + goalY + ")";
+                assertEquals(expected.isEmpty(), path.isEmpty(), description);
+                if (expected.size() < 2) continue;
+
+                PathAssertions.assertWalkable(grid, path, startX, startY, goalX, goalY);
+                int shortest = PathAssertions.cost(expected);
+                assertTrue(PathAssertions.cost(path) >= shortest, description);
+                stretch += PathAssertions.cost(path) / (double) shortest;
+                ++paths;
+            }
+        }
+        assertTrue(stretch / paths < MAX_MEAN_STRETCH, "mean stretch " + stretch / paths);
+    }
+
+    // Only clusters around an edit are rebuilt, which must give the same result as building them all
+    @Test
+    void rebuildingEditedClustersMatchesAFreshBuild() {
+        Random random = new Random(6);
+        int width = 73;
+        int height = 61;
+        Grid grid = PathAssertions.randomGrid(width, height, 0.25, random);
+        HierarchicalSearch search = new HierarchicalSearch(grid);
+
+        for (int round = 0; round < 40; ++round) {
+            for (int edit = 0; edit < 5; ++edit) {
+                grid.setObstacle(random.nextInt(width), random.nextInt(height), random.nextBoolean());
+            }
+
+            Grid fresh = new Grid(width, height);
+            for (int y = 0; y < height; ++y) {
+                for (int x = 0; x < width; ++x) {
+                    fresh.setObstacle(x, y, !grid.isWalkable(x, y));
+                }
+            }
+            HierarchicalSearch freshSearch = new HierarchicalSearch(fresh);
+
+            for (int query = 0; query < 20; ++query) {
+                int startX = random.nextInt(width);
+                int startY = random.nextInt(height);
+                int goalX = random.nextInt(width);
+                int goalY = random.nextInt(height);
+                if (!grid.isWalkable(startX, startY)) continue;
+
+                List<GridNode> expected = freshSearch.findPath(startX, startY, goalX, goalY);
+                List<GridNode> path = search.findPath(startX, startY, goalX, goalY);
+                assertEquals(expected.size(), path.size());
+                assertEquals(PathAssertions.cost(expected), PathAssertions.cost(path));
+            }
+        }
+    }
+}
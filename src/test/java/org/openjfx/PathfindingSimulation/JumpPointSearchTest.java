@@ -0,0 +1,53 @@
+package org.openjfx.PathfindingSimulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// Jump point searches must find paths exactly as short as plain A*
+class JumpPointSearchTest {
+    @Test
+    void jpsMatchesAStar() {
+        assertMatchesAStar(SearchMode.JPS, new Random(11));
+    }
+
+    @Test
+    void jpsPlusMatchesAStar() {
+        assertMatchesAStar(SearchMode.JPS_PLUS, new Random(12));
+    }
+
+    private static void assertMatchesAStar(SearchMode mode, Random random) {
+        for (int trial = 0; trial < 30; ++trial) {
+            int width = 10 + random.nextInt(60);
+            int height = 10 + random.nextInt(60);
+            Grid grid = PathAssertions.randomGrid(width, height, random.nextDouble() * 0.4, random);
+            grid.setSearchMode(mode);
+            AStarSearch reference = new AStarSearch(grid);
+
+            for (int query = 0; query < 100; ++query) {
+                // Edits between queries make JPS+ rebuild its jump distances
+                if (query % 20 == 10) {
+                    grid.setObstacle(random.nextInt(width), random.nextInt(height), random.nextBoolean());
+                }
+
+                int startX = random.nextInt(width);
+                int startY = random.nextInt(height);
+                int goalX = random.nextInt(width);
+                int goalY = random.nextInt(height);
+                if (!grid.isWalkable(startX, startY)) continue;
+
+                List<GridNode> expected = reference.findPath(startX, startY, goalX, goalY);
+                List<GridNode> path = grid.findPath(grid.getNode(startX, startY), grid.getNode(goalX, goalY));
+                String description = mode + " (" + startX + ", " + startY + ") to (" + goalX + ", " + goalY + ")";
+                assertEquals(expected.isEmpty(), path.isEmpty(), description);
+                if (path.isEmpty()) continue;
+
+                PathAssertions.assertWalkable(grid, path, startX, startY, goalX, goalY);
+                assertEquals(PathAssertions.cost(expected), PathAssertions.cost(path), description);
+            }
+        }
+    }
+}
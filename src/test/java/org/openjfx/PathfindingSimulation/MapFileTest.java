@@ -0,0 +1,122 @@
+package org.openjfx.PathfindingSimulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Saves grids, maps them back in and checks what load accepts
+class MapFileTest {
+    @TempDir
+    Path directory;
+
+    // Widths around word boundaries, where the right padding starts mid-word or on a new one
+    @Test
+    void roundTripsEveryCell() throws IOException {
+        Random random = new Random(4);
+        int[] widths = { 1, 2, 61, 62, 63, 64, 65, 126, 127, 200 };
+        for (int width : widths) {
+            int height = 1 + random.nextInt(40);
+            Grid grid = PathAssertions.randomGrid(width, height, 0.4, random);
+            Path path = directory.resolve("map-" + width + ".map");
+
+            MapFile.save(grid, path);
+            assertSameCells(grid, MapFile.load(path));
+        }
+    }
+
+    @Test
+    void loadsMapsLargerThanGeneratedOnes() throws IOException {
+        int width = MapConfig.MAX_GRID_SIZE + 1;
+        Grid grid = new Grid(width, 3);
+        grid.setObstacle(width - 1, 1, true);
+        Path path = directory.resolve("wide.map");
+
+        MapFile.save(grid, path);
+        assertSameCells(grid, MapFile.load(path));
+    }
+
+    @Test
+    void loadedGridCopiesOnEdit() throws IOException {
+        Path path = directory.resolve("edit.map");
+        MapFile.save(new Grid(30, 20), path);
+
+        Grid loaded = MapFile.load(path);
+        loaded.setObstacle(5, 5, true);
+        assertFalse(loaded.isWalkable(5, 5));
+        assertTrue(MapFile.load(path).isWalkable(5, 5));
+    }
+
+    // Every border position load must reject: top and bottom rows, the left padding column,
+    // right padding inside the last cell word (width 70) and in a word of its own (width 127)
+    @Test
+    void rejectsWalkableBorderBits() throws IOException {
+        int height = 6;
+        for (int width : new int[] { 70, 127 }) {
+            int wordsPerRow = WalkabilityBitmap.wordsPerRow(width);
+            int[][] paddedCells = {
+                { 1, 0 },
+                { width, height + 1 },
+                { 0, 3 },
+                { width + 1, 3 },
+                { wordsPerRow * 64 - 1, height },
+            };
+            for (int[] cell : paddedCells) {
+                Path path = directory.resolve("border-" + width + "-" + cell[0] + "-" + cell[1] + ".map");
+                MapFile.save(new Grid(width, height), path);
+                setBit(path, wordsPerRow, cell[0], cell[1]);
+
+                IOException error = assertThrows(IOException.class, () -> MapFile.load(path),
+                        "width " + width + ", padded column " + cell[0] + ", row " + cell[1]);
+                assertEquals(path + " has walkable cells in its border", error.getMessage());
+            }
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path path = directory.resolve("short.map");
+        MapFile.save(new Grid(40, 40), path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Long.BYTES);
+        }
+
+        assertThrows(IOException.class, () -> MapFile.load(path));
+    }
+
+    private static void assertSameCells(Grid expected, Grid actual) {
+        WalkabilityBitmap expectedCells = expected.snapshot().getWalkable();
+        WalkabilityBitmap actualCells = actual.snapshot().getWalkable();
+        assertEquals(expectedCells.getWidth(), actualCells.getWidth());
+        assertEquals(expectedCells.getHeight(), actualCells.getHeight());
+        // Includes the border, which must read as blocked
+        for (int y = -1; y <= expectedCells.getHeight(); ++y) {
+            for (int x = -1; x <= expectedCells.getWidth(); ++x) {
+                assertEquals(expectedCells.get(x, y), actualCells.get(x, y), "(" + x + ", " + y + ")");
+            }
+        }
+    }
+
+    // Sets one bit of the stored bitmap, addressed by padded column and row
+    private static void setBit(Path path, int wordsPerRow, int column, int row) throws IOException {
+        long word = (long) row * wordsPerRow + (column >>> 6);
+        long position = MapFile.HEADER_SIZE + word * Long.BYTES + (column & 63) / 8;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) (value.get(0) | 1 << (column & 7)));
+            value.rewind();
+            channel.write(value, position);
+        }
+    }
+}
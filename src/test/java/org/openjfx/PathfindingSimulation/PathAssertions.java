@@ -0,0 +1,52 @@
+package org.openjfx.PathfindingSimulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+// Checks shared by the search tests
+final class PathAssertions {
+    private PathAssertions() {
+    }
+
+    static Grid randomGrid(int width, int height, double density, Random random) {
+        Grid grid = new Grid(width, height);
+        for (int i = 0; i < width * height * density; ++i) {
+            grid.setObstacle(random.nextInt(width), random.nextInt(height), true);
+        }
+        return grid;
+    }
+
+    // Total cost of the steps between successive nodes
+    static int cost(List<GridNode> path) {
+        int cost = 0;
+        for (int i = 1; i < path.size(); ++i) {
+            GridNode from = path.get(i - 1);
+            GridNode to = path.get(i);
+            cost += Grid.segmentCost(from.getXPos(), from.getYPos(), to.getXPos(), to.getYPos());
+        }
+        return cost;
+    }
+
+    // The path runs from start to goal in single steps over open cells without cutting corners
+    static void assertWalkable(Grid grid, List<GridNode> path, int startX, int startY, int goalX, int goalY) {
+        assertEquals(startX, path.get(0).getXPos());
+        assertEquals(startY, path.get(0).getYPos());
+        assertEquals(goalX, path.get(path.size() - 1).getXPos());
+        assertEquals(goalY, path.get(path.size() - 1).getYPos());
+
+        for (int i = 1; i < path.size(); ++i) {
+            int fromX = path.get(i - 1).getXPos();
+            int fromY = path.get(i - 1).getYPos();
+            int toX = path.get(i).getXPos();
+            int toY = path.get(i).getYPos();
+            String step = "(" + fromX + ", " + fromY + ") to (" + toX + ", " + toY + ")";
+            assertTrue(Math.abs(toX - fromX) <= 1 && Math.abs(toY - fromY) <= 1 && (toX != fromX || toY != fromY),
+                    "not a single step: " + step);
+            assertTrue(grid.isWalkable(toX, toY), "blocked: " + step);
+            assertTrue(grid.isWalkable(fromX, toY) && grid.isWalkable(toX, fromY), "cuts a corner: " + step);
+        }
+    }
+}